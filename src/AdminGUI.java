@@ -1,8 +1,6 @@
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.sql.SQLException;
-import java.util.List;
 
 /**
  * The AdminGUI class provides a graphical user interface for administrators
@@ -12,7 +10,7 @@ import java.util.List;
  */
 public class AdminGUI extends JFrame {
     private JTable userTable;
-    private DefaultTableModel tableModel;
+    private PagedTableModel<User> tableModel;
     private VolunteerDatabase dbManager;
 
     /**
@@ -30,7 +28,8 @@ public class AdminGUI extends JFrame {
 
         // Create the table to display users
         String[] columnNames = {"User ID", "First Name", "Last Name", "Email", "Role"};
-        tableModel = new DefaultTableModel(columnNames, 0);
+        tableModel = new PagedTableModel<>(columnNames, dbManager.userPages(),
+                user -> new Object[]{user.getUserID(), user.getFirstName(), user.getLastName(), user.getEmail(), user.getRole().name()});
         userTable = new JTable(tableModel);
         JScrollPane scrollPane = new JScrollPane(userTable);
         add(scrollPane, BorderLayout.CENTER);
@@ -93,14 +92,13 @@ public class AdminGUI extends JFrame {
         refreshTable();
     }
 
+    /**
+     * Reloads the user count and discards cached rows so the table reflects the database.
+     * Rows are fetched page by page as they are scrolled into view.
+     */
     public void refreshTable() {
-        tableModel.setRowCount(0);
         try {
-            List<User> userList = dbManager.getAllUsers();
-            for (User user : userList) {
-                Object[] rowData = {user.getUserID(), user.getFirstName(), user.getLastName(), user.getEmail(), user.getRole().name()};
-                tableModel.addRow(rowData);
-            }
+            tableModel.refresh();
         } catch (SQLException ex) {
             JOptionPane.showMessageDialog(this, "Error loading users from database: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
         }
@@ -0,0 +1,116 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The BatchInsertResult class summarizes a bulk insert performed by {@link VolunteerDatabase}.
+ * It records how many rows were inserted and which rows failed, and why.
+ * @author Brandon Roos
+ */
+public class BatchInsertResult {
+    /** The number of rows the caller asked to insert. */
+    private final int attempted;
+    /** The number of rows successfully inserted. */
+    private int inserted;
+    /** The rows that could not be inserted. */
+    private final List<RowFailure> failures;
+
+    /**
+     * Constructs a new BatchInsertResult.
+     *
+     * @param attempted the number of rows the caller asked to insert.
+     */
+    public BatchInsertResult(int attempted) {
+        this.attempted = attempted;
+        this.inserted = 0;
+        this.failures = new ArrayList<>();
+    }
+
+    /**
+     * Records that rows were inserted.
+     * @param count The number of rows inserted.
+     */
+    void addInserted(int count) { this.inserted += count; }
+
+    /**
+     * Records that a row could not be inserted.
+     * @param index The position of the row in the submitted collection.
+     * @param id The ID of the entity in that row.
+     * @param message A description of the failure.
+     */
+    void addFailure(int index, String id, String message) {
+        this.failures.add(new RowFailure(index, id, message));
+    }
+
+    /**
+     * Gets the number of rows the caller asked to insert.
+     * @return The attempted row count.
+     */
+    public int getAttempted() { return attempted; }
+    /**
+     * Gets the number of rows successfully inserted.
+     * @return The inserted row count.
+     */
+    public int getInserted() { return inserted; }
+    /**
+     * Gets the rows that could not be inserted, in submission order.
+     * @return The list of row failures.
+     */
+    public List<RowFailure> getFailures() { return Collections.unmodifiableList(failures); }
+    /**
+     * Checks whether any row failed.
+     * @return true if at least one row was not inserted, false otherwise.
+     */
+    public boolean hasFailures() { return !failures.isEmpty(); }
+
+    @Override
+    public String toString() {
+        return "Inserted " + inserted + " of " + attempted + " rows (" + failures.size() + " failed)";
+    }
+
+    /**
+     * Describes a single row that was rejected during a bulk insert.
+     */
+    public static class RowFailure {
+        /** The position of the row in the submitted collection. */
+        private final int index;
+        /** The ID of the entity in the row. */
+        private final String id;
+        /** A description of the failure. */
+        private final String message;
+
+        /**
+         * Constructs a new RowFailure.
+         *
+         * @param index the position of the row in the submitted collection.
+         * @param id the ID of the entity in the row.
+         * @param message a description of the failure.
+         */
+        public RowFailure(int index, String id, String message) {
+            this.index = index;
+            this.id = id;
+            this.message = message;
+        }
+
+        /**
+         * Gets the position of the row in the submitted collection.
+         * @return The row index.
+         */
+        public int getIndex() { return index; }
+        /**
+         * Gets the ID of the entity in the row.
+         * @return The entity ID.
+         */
+        public String getId() { return id; }
+        /**
+         * Gets the description of the failure.
+         * @return The failure message.
+         */
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() {
+            return "Row " + index + " (" + id + "): " + message;
+        }
+    }
+}
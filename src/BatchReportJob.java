@@ -0,0 +1,170 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates one PDF hours report per organization, several organizations at a time.
+ * Work is partitioned by orgID and run on a fixed pool of worker threads. Each report streams
+ * its records through a single pooled connection and is written to its own file, so the number
+ * of workers is capped below the connection pool size to leave a connection for the rest of
+ * the application. One organization's failure does not stop the others.
+ * @author Brandon Roos
+ */
+public class BatchReportJob {
+    /** The database manager instance. */
+    private final VolunteerDatabase dbManager;
+    /** The directory the reports are written to. */
+    private final Path outputDirectory;
+    /** The number of reports generated at once. */
+    private final int workers;
+
+    /**
+     * Constructs a new BatchReportJob.
+     *
+     * @param dbManager the database manager to read records from.
+     * @param outputDirectory the directory to write the reports to; created if missing.
+     * @param workers the number of reports to generate at once; capped to the connection pool size less one.
+     */
+    public BatchReportJob(VolunteerDatabase dbManager, Path outputDirectory, int workers) {
+        this.dbManager = dbManager;
+        this.outputDirectory = outputDirectory;
+        int connections = dbManager.getPoolStatistics().getMaxSize();
+        this.workers = Math.max(1, Math.min(workers, connections - 1));
+    }
+
+    /**
+     * Generates a report for every organization and waits for all of them to finish.
+     * @return The outcome of each organization's report, in orgID order.
+     * @throws SQLException if the organizations cannot be listed.
+     * @throws IOException if the output directory cannot be created.
+     * @throws InterruptedException if the calling thread is interrupted while waiting.
+     */
+    public List<OrgReport> run() throws SQLException, IOException, InterruptedException {
+        List<String> orgIDs = new ArrayList<>();
+        dbManager.forEachOrganization(org -> orgIDs.add(org.getOrgID()));
+        orgIDs.sort(null);
+        Files.createDirectories(outputDirectory);
+
+        long start = System.nanoTime();
+        String jobID = UUID.randomUUID().toString();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(workers, task -> {
+            Thread thread = new Thread(task, "batch-report-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<OrgReport> results = new ArrayList<>(orgIDs.size());
+        try {
+            List<Future<OrgReport>> futures = new ArrayList<>(orgIDs.size());
+            for (String orgID : orgIDs) {
+                futures.add(pool.submit(() -> generate(jobID, orgID)));
+            }
+            for (Future<OrgReport> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    // generate() catches its own failures; anything else is a bug worth surfacing
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long failures = results.stream().filter(r -> !r.isSuccessful()).count();
+        System.out.printf("Batch reports: %d organizations, %d failed, %d workers, %.1f s%n",
+                results.size(), failures, workers, (System.nanoTime() - start) / 1e9);
+        return results;
+    }
+
+    /**
+     * Gets the number of reports generated at once.
+     * @return The worker count.
+     */
+    public int getWorkers() { return workers; }
+
+    private OrgReport generate(String jobID, String orgID) {
+        Path file = outputDirectory.resolve("hours-" + orgID.replaceAll("[^A-Za-z0-9._-]", "_") + ".pdf");
+        long start = System.nanoTime();
+        try {
+            int pages = new Report(jobID + "-" + orgID, "PDF", "batch").generatePDF(dbManager, orgID, file);
+            OrgReport result = new OrgReport(orgID, file, pages, elapsedMillis(start), null);
+            System.out.println(result);
+            return result;
+        } catch (SQLException | IOException | RuntimeException e) {
+            OrgReport result = new OrgReport(orgID, file, 0, elapsedMillis(start), e.getMessage() == null ? e.toString() : e.getMessage());
+            System.err.println(result);
+            return result;
+        }
+    }
+
+    private static long elapsedMillis(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    /**
+     * The outcome of one organization's report.
+     */
+    public static class OrgReport {
+        private final String orgID;
+        private final Path file;
+        private final int pages;
+        private final long elapsedMillis;
+        private final String error;
+
+        private OrgReport(String orgID, Path file, int pages, long elapsedMillis, String error) {
+            this.orgID = orgID;
+            this.file = file;
+            this.pages = pages;
+            this.elapsedMillis = elapsedMillis;
+            this.error = error;
+        }
+
+        /**
+         * Gets the ID of the organization.
+         * @return The organization ID.
+         */
+        public String getOrgID() { return orgID; }
+        /**
+         * Gets the report file.
+         * @return The path of the report, which does not exist if generation failed.
+         */
+        public Path getFile() { return file; }
+        /**
+         * Gets the number of pages in the report.
+         * @return The page count, or 0 if generation failed.
+         */
+        public int getPages() { return pages; }
+        /**
+         * Gets how long the report took to generate, or to fail.
+         * @return The elapsed time in milliseconds.
+         */
+        public long getElapsedMillis() { return elapsedMillis; }
+        /**
+         * Gets why the report could not be generated.
+         * @return The failure message, or null if the report was generated.
+         */
+        public String getError() { return error; }
+        /**
+         * Checks whether the report was generated.
+         * @return true if the report was written, false if it failed.
+         */
+        public boolean isSuccessful() { return error == null; }
+
+        @Override
+        public String toString() {
+            return isSuccessful()
+                    ? "Report for " + orgID + ": " + pages + " pages in " + elapsedMillis + " ms -> " + file
+                    : "Report for " + orgID + " failed after " + elapsedMillis + " ms: " + error;
+        }
+    }
+}
@@ -0,0 +1,303 @@
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Encodes and decodes the binary columns {@code users.academicSemesterHours} and
+ * {@code events.requiredSkills} in a compact, versioned format.
+ * <p>
+ * Layout: a magic byte ({@code 'V'}), a format version, a payload kind, a varint entry count,
+ * then the entries. Strings are a varint byte length followed by UTF-8 bytes; doubles are
+ * 8-byte IEEE 754 values. Rows written by the original implementation with Java serialization
+ * start with the serialization stream magic ({@code 0xACED}) and are still read transparently,
+ * but only the collection, {@code String} and {@code Double} classes those columns were written
+ * with may appear in them; any other class in the stream is rejected before it is loaded.
+ * @author Brandon Roos
+ */
+public final class BlobCodec {
+    /** The first byte of every value written in the compact format. */
+    private static final byte MAGIC = 'V';
+    /** The current version of the compact format. */
+    private static final byte VERSION = 1;
+    /** Payload kind for a map of semester to hours. */
+    private static final byte KIND_SEMESTER_HOURS = 1;
+    /** Payload kind for a list of strings. */
+    private static final byte KIND_STRING_LIST = 2;
+    /** The size of the header: magic, version and kind. */
+    private static final int HEADER_SIZE = 3;
+    /** The fewest bytes one semester hours entry can take: an empty name and a double. */
+    private static final int MIN_SEMESTER_ENTRY_SIZE = 1 + Double.BYTES;
+    /** The classes a legacy value may contain: the maps and lists the columns held, and their elements. */
+    private static final Set<String> LEGACY_CLASSES = new HashSet<>(Arrays.asList(
+            "java.lang.String", "java.lang.Number", "java.lang.Double",
+            "java.util.HashMap", "java.util.LinkedHashMap", "java.util.TreeMap",
+            "java.util.ArrayList", "java.util.LinkedList", "java.util.Arrays$ArrayList",
+            "java.util.Collections$EmptyList", "java.util.Collections$EmptyMap", "java.util.Collections$SingletonList",
+            "java.util.Collections$UnmodifiableCollection", "java.util.Collections$UnmodifiableList",
+            "java.util.Collections$UnmodifiableRandomAccessList",
+            "[Ljava.lang.String;", "[Ljava.lang.Object;"));
+
+    private BlobCodec() {
+    }
+
+    /**
+     * Encodes a map of academic semester to hours.
+     * @param hours The semester hours to encode; null is encoded as an empty map.
+     * @return The encoded bytes.
+     */
+    public static byte[] encodeSemesterHours(Map<String, Double> hours) {
+        int count = hours == null ? 0 : hours.size();
+        byte[][] keys = new byte[count][];
+        double[] values = new double[count];
+        int size = HEADER_SIZE + varintSize(count);
+        if (hours != null) {
+            int i = 0;
+            for (Map.Entry<String, Double> entry : hours.entrySet()) {
+                keys[i] = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                values[i] = entry.getValue() == null ? 0.0 : entry.getValue();
+                size += varintSize(keys[i].length) + keys[i].length + Double.BYTES;
+                i++;
+            }
+        }
+
+        ByteBuffer buf = header(size, KIND_SEMESTER_HOURS);
+        writeVarint(buf, count);
+        for (int i = 0; i < count; i++) {
+            writeBytes(buf, keys[i]);
+            buf.putDouble(values[i]);
+        }
+        return buf.array();
+    }
+
+    /**
+     * Encodes a list of strings, such as an event's required skills.
+     * @param values The strings to encode; null is encoded as an empty list.
+     * @return The encoded bytes.
+     */
+    public static byte[] encodeStringList(List<String> values) {
+        int count = values == null ? 0 : values.size();
+        List<byte[]> encoded = new ArrayList<>(count);
+        int size = HEADER_SIZE + varintSize(count);
+        if (values != null) {
+            for (String value : values) {
+                byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+                encoded.add(bytes);
+                size += varintSize(bytes.length) + bytes.length;
+            }
+        }
+
+        ByteBuffer buf = header(size, KIND_STRING_LIST);
+        writeVarint(buf, count);
+        for (byte[] bytes : encoded) {
+            writeBytes(buf, bytes);
+        }
+        return buf.array();
+    }
+
+    /**
+     * Decodes a map of academic semester to hours written in either the compact or the legacy format.
+     * @param data The stored bytes; may be null.
+     * @return The decoded hours, empty if data is null.
+     * @throws IOException if the bytes are not a valid encoding.
+     */
+    public static SemesterHours decodeSemesterHours(byte[] data) throws IOException {
+        if (data == null || data.length == 0) {
+            return new SemesterHours();
+        }
+        if (isLegacy(data)) {
+            Object value = readLegacy(data);
+            if (!(value instanceof Map)) {
+                throw new IOException("Unexpected legacy value type " + typeOf(value) + ", expected a map.");
+            }
+            SemesterHours hours = new SemesterHours();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!(entry.getKey() instanceof String) || !(entry.getValue() instanceof Double)) {
+                    throw new IOException("Unexpected legacy value type: map of " + typeOf(entry.getKey())
+                            + " to " + typeOf(entry.getValue()) + ", expected String to Double.");
+                }
+                hours.add((String) entry.getKey(), (Double) entry.getValue());
+            }
+            return hours;
+        }
+        ByteBuffer buf = openPayload(data, KIND_SEMESTER_HOURS);
+        try {
+            int count = readVarint(buf);
+            if (count > buf.remaining() / MIN_SEMESTER_ENTRY_SIZE) {
+                throw new IOException("Entry count " + count + " exceeds remaining data.");
+            }
+            SemesterHours hours = new SemesterHours();
+            for (int i = 0; i < count; i++) {
+                String semester = readString(buf);
+                hours.add(semester, buf.getDouble());
+            }
+            return hours;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated semester hours value.", e);
+        }
+    }
+
+    /**
+     * Decodes a list of strings written in either the compact or the legacy format.
+     * @param data The stored bytes; may be null.
+     * @return The decoded list, empty if data is null.
+     * @throws IOException if the bytes are not a valid encoding.
+     */
+    public static List<String> decodeStringList(byte[] data) throws IOException {
+        if (data == null || data.length == 0) {
+            return new ArrayList<>();
+        }
+        if (isLegacy(data)) {
+            Object value = readLegacy(data);
+            if (!(value instanceof List)) {
+                throw new IOException("Unexpected legacy value type " + typeOf(value) + ", expected a list.");
+            }
+            List<String> values = new ArrayList<>(((List<?>) value).size());
+            for (Object element : (List<?>) value) {
+                if (element != null && !(element instanceof String)) {
+                    throw new IOException("Unexpected legacy value type: list of " + typeOf(element) + ", expected String.");
+                }
+                values.add((String) element);
+            }
+            return values;
+        }
+        ByteBuffer buf = openPayload(data, KIND_STRING_LIST);
+        try {
+            int count = readVarint(buf);
+            // Every string takes at least its one-byte length, so a larger count is corrupt
+            if (count > buf.remaining()) {
+                throw new IOException("Entry count " + count + " exceeds remaining data.");
+            }
+            List<String> values = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                values.add(readString(buf));
+            }
+            return values;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated string list value.", e);
+        }
+    }
+
+    /**
+     * Checks whether a stored value was written with Java serialization.
+     * @param data The stored bytes.
+     * @return true if the value is in the legacy format, false otherwise.
+     */
+    public static boolean isLegacy(byte[] data) {
+        return data != null && data.length >= 2 && (data[0] & 0xFF) == 0xAC && (data[1] & 0xFF) == 0xED;
+    }
+
+    private static Object readLegacy(byte[] data) throws IOException {
+        try (ObjectInputStream ois = new LegacyObjectInputStream(data)) {
+            return ois.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Unreadable legacy value.", e);
+        }
+    }
+
+    private static String typeOf(Object value) {
+        return value == null ? "null" : value.getClass().getName();
+    }
+
+    private static ByteBuffer header(int size, byte kind) {
+        ByteBuffer buf = ByteBuffer.allocate(size);
+        buf.put(MAGIC).put(VERSION).put(kind);
+        return buf;
+    }
+
+    private static ByteBuffer openPayload(byte[] data, byte expectedKind) throws IOException {
+        if (data.length < HEADER_SIZE || data[0] != MAGIC) {
+            throw new IOException("Unrecognized binary value.");
+        }
+        if (data[1] != VERSION) {
+            throw new IOException("Unsupported binary format version " + data[1] + ".");
+        }
+        if (data[2] != expectedKind) {
+            throw new IOException("Unexpected payload kind " + data[2] + ", expected " + expectedKind + ".");
+        }
+        ByteBuffer buf = ByteBuffer.wrap(data);
+        buf.position(HEADER_SIZE);
+        return buf;
+    }
+
+    private static String readString(ByteBuffer buf) throws IOException {
+        int length = readVarint(buf);
+        if (length > buf.remaining()) {
+            throw new IOException("String length " + length + " exceeds remaining data.");
+        }
+        String value = new String(buf.array(), buf.position(), length, StandardCharsets.UTF_8);
+        buf.position(buf.position() + length);
+        return value;
+    }
+
+    private static void writeBytes(ByteBuffer buf, byte[] bytes) {
+        writeVarint(buf, bytes.length);
+        buf.put(bytes);
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static void writeVarint(ByteBuffer buf, int value) {
+        while ((value & ~0x7F) != 0) {
+            buf.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buf.put((byte) value);
+    }
+
+    private static int readVarint(ByteBuffer buf) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = buf.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    throw new IOException("Negative length in binary value.");
+                }
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in binary value.");
+    }
+
+    /**
+     * Reads a legacy value, refusing to load any class outside {@link #LEGACY_CLASSES}.
+     * This does in {@code resolveClass} what an {@code ObjectInputFilter} does on Java 9 and
+     * later, so it also works on Java 8.
+     */
+    private static final class LegacyObjectInputStream extends ObjectInputStream {
+        private LegacyObjectInputStream(byte[] data) throws IOException {
+            super(new ByteArrayInputStream(data));
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            if (!LEGACY_CLASSES.contains(desc.getName())) {
+                throw new InvalidClassException(desc.getName(), "Class not allowed in a legacy binary value.");
+            }
+            return super.resolveClass(desc);
+        }
+
+        @Override
+        protected Class<?> resolveProxyClass(String[] interfaces) throws IOException {
+            throw new InvalidClassException("Proxy classes are not allowed in a legacy binary value.");
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * The BulkStatusResult class summarizes a bulk approval or rejection performed by
+ * {@link VolunteerDatabase}. Only pending records change status; the others are counted as skipped.
+ * @author Brandon Roos
+ */
+public class BulkStatusResult {
+    /** The status the records were moved to. */
+    private final VolunteerRecord.Status status;
+    /** The number of records the caller asked to change. */
+    private int requested;
+    /** The number of records whose status was changed. */
+    private int updated;
+    /** The hours added to the volunteers' totals by approved records. */
+    private double approvedHours;
+
+    /**
+     * Constructs a new BulkStatusResult.
+     *
+     * @param status the status the records are moved to.
+     */
+    BulkStatusResult(VolunteerRecord.Status status) {
+        this.status = status;
+    }
+
+    /**
+     * Records that records were considered for the change.
+     * @param count The number of records.
+     */
+    void addRequested(int count) { this.requested += count; }
+
+    /**
+     * Records that a record's status was changed.
+     * @param hours The hours the record adds to its volunteer's approved total.
+     */
+    void addUpdated(double hours) {
+        this.updated++;
+        this.approvedHours += hours;
+    }
+
+    /**
+     * Gets the status the records were moved to.
+     * @return The new status.
+     */
+    public VolunteerRecord.Status getStatus() { return status; }
+    /**
+     * Gets the number of records the caller asked to change.
+     * @return The requested record count.
+     */
+    public int getRequested() { return requested; }
+    /**
+     * Gets the number of records whose status was changed.
+     * @return The updated record count.
+     */
+    public int getUpdated() { return updated; }
+    /**
+     * Gets the number of records left unchanged because they were missing or no longer pending.
+     * @return The skipped record count.
+     */
+    public int getSkipped() { return requested - updated; }
+    /**
+     * Gets the hours added to the volunteers' approved totals.
+     * @return The approved hours, or 0.0 for a rejection.
+     */
+    public double getApprovedHours() { return approvedHours; }
+
+    @Override
+    public String toString() {
+        return String.format("%s %d of %d records (%d skipped, %.2f hours approved)",
+                status, updated, requested, getSkipped(), approvedHours);
+    }
+}
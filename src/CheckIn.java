@@ -0,0 +1,93 @@
+import java.util.Date;
+
+/**
+ * The CheckIn class represents one kiosk visit by a volunteer at an event.
+ * A check-in is open until the volunteer checks out, at which point the hours
+ * between the two times are submitted as a {@link VolunteerRecord}.
+ * @author Brandon Roos
+ */
+public class CheckIn {
+    /** The unique ID of the check-in. */
+    private final String checkinID;
+    /** The ID of the volunteer who checked in. */
+    private final String userID;
+    /** The ID of the event the volunteer checked in to. */
+    private final String eventID;
+    /** When the volunteer checked in. */
+    private final Date checkInTime;
+    /** When the volunteer checked out, or null while the check-in is open. */
+    private final Date checkOutTime;
+    /** The ID of the record created at check-out, or null while the check-in is open. */
+    private final String recordID;
+
+    /**
+     * Constructs a new CheckIn.
+     *
+     * @param checkinID the unique ID of the check-in.
+     * @param userID the ID of the volunteer.
+     * @param eventID the ID of the event.
+     * @param checkInTime when the volunteer checked in.
+     * @param checkOutTime when the volunteer checked out, or null if still checked in.
+     * @param recordID the ID of the record created at check-out, or null if still checked in.
+     */
+    public CheckIn(String checkinID, String userID, String eventID, Date checkInTime, Date checkOutTime, String recordID) {
+        this.checkinID = checkinID;
+        this.userID = userID;
+        this.eventID = eventID;
+        this.checkInTime = checkInTime;
+        this.checkOutTime = checkOutTime;
+        this.recordID = recordID;
+    }
+
+    /**
+     * Computes the hours between a check-in and a check-out, rounded to the nearest hundredth.
+     * @param checkInTime When the volunteer checked in.
+     * @param checkOutTime When the volunteer checked out.
+     * @return The hours worked, never negative.
+     */
+    public static double hoursBetween(Date checkInTime, Date checkOutTime) {
+        long millis = Math.max(0, checkOutTime.getTime() - checkInTime.getTime());
+        return Math.round(millis / 36_000.0) / 100.0;
+    }
+
+    /**
+     * Gets the unique ID of the check-in.
+     * @return The check-in ID.
+     */
+    public String getCheckinID() { return checkinID; }
+    /**
+     * Gets the ID of the volunteer who checked in.
+     * @return The user ID.
+     */
+    public String getUserID() { return userID; }
+    /**
+     * Gets the ID of the event the volunteer checked in to.
+     * @return The event ID.
+     */
+    public String getEventID() { return eventID; }
+    /**
+     * Gets when the volunteer checked in.
+     * @return The check-in time.
+     */
+    public Date getCheckInTime() { return checkInTime; }
+    /**
+     * Gets when the volunteer checked out.
+     * @return The check-out time, or null if the check-in is open.
+     */
+    public Date getCheckOutTime() { return checkOutTime; }
+    /**
+     * Gets the ID of the record created at check-out.
+     * @return The record ID, or null if the check-in is open.
+     */
+    public String getRecordID() { return recordID; }
+    /**
+     * Checks whether the volunteer is still checked in.
+     * @return true if the volunteer has not checked out, false otherwise.
+     */
+    public boolean isOpen() { return checkOutTime == null; }
+    /**
+     * Gets the hours between check-in and check-out.
+     * @return The hours worked, or 0.0 if the check-in is open.
+     */
+    public double getHours() { return isOpen() ? 0.0 : hoursBetween(checkInTime, checkOutTime); }
+}
@@ -0,0 +1,260 @@
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Checks volunteers in and out of events from the kiosk {@link LoginDialog}.
+ * Events are offered as {@link EventChoice}s, identified by ID and labelled with their title
+ * and date, since titles are not unique: a weekly event has one row per week. Volunteers are
+ * found by their indexed phone number, and each check-in or check-out is a single short
+ * database round trip on a pooled connection, so many kiosks can share one instance. Check-out
+ * turns the visit into a pending {@link VolunteerRecord} with the hours worked. Events can also
+ * be searched by keyword through an {@link EventSearchIndex}, and volunteers can sign up for an
+ * event's free slots through a {@link RegistrationService}. The events and the index are loaded
+ * with one scan of the events table and then follow new events through a database event
+ * listener, which {@link #close()} removes.
+ * @author Brandon Roos
+ */
+public class CheckInService {
+    /** The database manager instance. */
+    private final VolunteerDatabase dbManager;
+    /** The events that can be chosen, by ID. */
+    private final Map<String, EventChoice> eventsByID = new ConcurrentHashMap<>();
+    /** The full-text index behind {@link #searchEvents(String, int)}. */
+    private final EventSearchIndex searchIndex = new EventSearchIndex();
+    /** Keeps the events and the index current; kept so {@link #close()} can unregister it. */
+    private final Consumer<Event> eventListener = this::addEvent;
+    /** The service that registers volunteers for events. */
+    private final RegistrationService registrationService;
+
+    private final AtomicLong operations = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Constructs a new CheckInService and loads the events and search index.
+     *
+     * @param dbManager The database manager instance.
+     * @throws SQLException if the events cannot be loaded.
+     */
+    public CheckInService(VolunteerDatabase dbManager) throws SQLException {
+        this(dbManager, new RegistrationService(dbManager));
+    }
+
+    /**
+     * Constructs a new CheckInService that signs volunteers up through a shared registration service.
+     *
+     * @param dbManager The database manager instance.
+     * @param registrationService The service that registers volunteers for events.
+     * @throws SQLException if the events cannot be loaded.
+     */
+    public CheckInService(VolunteerDatabase dbManager, RegistrationService registrationService) throws SQLException {
+        this.dbManager = dbManager;
+        this.registrationService = registrationService;
+        dbManager.forEachEvent(eventListener);
+        dbManager.addEventListener(eventListener);
+    }
+
+    /**
+     * Stops following new events. The service should not be used afterwards.
+     */
+    public void close() {
+        dbManager.removeEventListener(eventListener);
+    }
+
+    /**
+     * Gets the events that can be checked in to, in order of title and then date.
+     * @return The events.
+     */
+    public List<EventChoice> getEvents() {
+        List<EventChoice> events = new ArrayList<>(eventsByID.values());
+        events.sort(EventChoice.ORDER);
+        return events;
+    }
+
+    /**
+     * Finds the events matching what the user has typed so far, best match first. Each search
+     * hit is listed as its own event, so events that share a title stay distinct.
+     * @param query The search text; the last word may be incomplete.
+     * @param limit The maximum number of events to return.
+     * @return The matching events.
+     */
+    public List<EventChoice> searchEvents(String query, int limit) {
+        List<EventChoice> matches = new ArrayList<>();
+        for (EventSearchIndex.Hit hit : searchIndex.search(query, limit)) {
+            EventChoice choice = eventsByID.get(hit.getEventID());
+            if (choice != null) {
+                matches.add(choice);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Checks a volunteer in to an event.
+     * @param phoneNumber The volunteer's phone number.
+     * @param eventID The ID of the event.
+     * @return The open check-in.
+     * @throws SQLException if a database access error occurs.
+     * @throws IllegalArgumentException if no volunteer has the phone number or the event does not exist.
+     */
+    public CheckIn checkIn(String phoneNumber, String eventID) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            User user = findUser(phoneNumber);
+            return dbManager.checkIn(user.getUserID(), findEvent(eventID).getEventID(), new Date());
+        } finally {
+            recordLatency(start);
+        }
+    }
+
+    /**
+     * Signs a volunteer up for one of an event's free slots.
+     * @param phoneNumber The volunteer's phone number.
+     * @param eventID The ID of the event.
+     * @return The outcome of the registration.
+     * @throws SQLException if a database access error occurs.
+     * @throws IllegalArgumentException if no volunteer has the phone number or the event does not exist.
+     */
+    public RegistrationResult signUp(String phoneNumber, String eventID) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            User user = findUser(phoneNumber);
+            return registrationService.register(findEvent(eventID).getEventID(), user.getUserID());
+        } finally {
+            recordLatency(start);
+        }
+    }
+
+    /**
+     * Checks a volunteer out of an event and submits the hours worked for approval.
+     * @param phoneNumber The volunteer's phone number.
+     * @param eventID The ID of the event.
+     * @return The completed check-in, including the ID of the new record.
+     * @throws SQLException if a database access error occurs.
+     * @throws IllegalArgumentException if no volunteer has the phone number or the event does not exist.
+     * @throws IllegalStateException if the volunteer is not checked in to the event.
+     */
+    public CheckIn checkOut(String phoneNumber, String eventID) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            User user = findUser(phoneNumber);
+            EventChoice event = findEvent(eventID);
+            CheckIn completed = dbManager.checkOut(user.getUserID(), event.getEventID(), new Date());
+            if (completed == null) {
+                throw new IllegalStateException(user.getFirstName() + " is not checked in to " + event + ".");
+            }
+            return completed;
+        } finally {
+            recordLatency(start);
+        }
+    }
+
+    /**
+     * Gets the number of check-ins, check-outs and sign-ups processed.
+     * @return The operation count.
+     */
+    public long getOperationCount() { return operations.get(); }
+
+    /**
+     * Gets the mean time taken by a check-in, check-out or sign-up.
+     * @return The average latency in milliseconds.
+     */
+    public double getAverageLatencyMillis() {
+        long count = operations.get();
+        return count == 0 ? 0.0 : totalNanos.get() / 1_000_000.0 / count;
+    }
+
+    /**
+     * Gets the longest time taken by a check-in, check-out or sign-up.
+     * @return The maximum latency in milliseconds.
+     */
+    public double getMaxLatencyMillis() { return maxNanos.get() / 1_000_000.0; }
+
+    private User findUser(String phoneNumber) throws SQLException {
+        User user = dbManager.getUserByPhone(phoneNumber);
+        if (user == null) {
+            throw new IllegalArgumentException("No volunteer is registered with phone number " + phoneNumber + ".");
+        }
+        return user;
+    }
+
+    private EventChoice findEvent(String eventID) throws SQLException {
+        EventChoice choice = eventID == null ? null : eventsByID.get(eventID);
+        if (choice == null && eventID != null) {
+            // The event may have been added by a path that does not notify listeners
+            Event event = dbManager.getEventByID(eventID);
+            if (event != null) {
+                choice = addEvent(event);
+            }
+        }
+        if (choice == null) {
+            throw new IllegalArgumentException("No event has the ID " + eventID + ".");
+        }
+        return choice;
+    }
+
+    private EventChoice addEvent(Event event) {
+        EventChoice choice = new EventChoice(event);
+        searchIndex.updateEvent(event);
+        eventsByID.put(choice.getEventID(), choice);
+        return choice;
+    }
+
+    private void recordLatency(long start) {
+        long elapsed = System.nanoTime() - start;
+        operations.incrementAndGet();
+        totalNanos.addAndGet(elapsed);
+        maxNanos.accumulateAndGet(elapsed, Math::max);
+    }
+
+    /**
+     * An event offered at the kiosk, labelled with its title and date.
+     */
+    public static final class EventChoice {
+        /** By title, then date, then ID, so events that share a title are listed together in date order. */
+        static final Comparator<EventChoice> ORDER = Comparator
+                .comparing((EventChoice c) -> c.title, Comparator.nullsLast(Comparator.<String>naturalOrder()))
+                .thenComparing(c -> c.date, Comparator.nullsLast(Comparator.<Date>naturalOrder()))
+                .thenComparing(c -> c.eventID);
+
+        private final String eventID;
+        private final String title;
+        private final Date date;
+        private final String label;
+
+        private EventChoice(Event event) {
+            this.eventID = event.getEventID();
+            this.title = event.getTitle();
+            this.date = event.getDate() == null ? null : new Date(event.getDate().getTime());
+            this.label = date == null ? String.valueOf(title) : String.format("%s (%tb %<te, %<tY)", title, date);
+        }
+
+        /**
+         * Gets the ID of the event.
+         * @return The event ID.
+         */
+        public String getEventID() { return eventID; }
+        /**
+         * Gets the title of the event.
+         * @return The event title.
+         */
+        public String getTitle() { return title; }
+        /**
+         * Gets the date of the event.
+         * @return The event date, or null if it has none.
+         */
+        public Date getDate() { return date == null ? null : new Date(date.getTime()); }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+}
@@ -0,0 +1,546 @@
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded pool of physical JDBC connections to the embedded database.
+ * Connections handed out by {@link #borrow()} are lightweight handles; closing a handle
+ * returns the underlying connection to the pool instead of tearing it down.
+ * The pool keeps at least {@code minSize} connections open, never opens more than
+ * {@code maxSize}, validates connections on borrow, evicts connections that sit idle
+ * too long and reports connections that are held longer than the leak threshold.
+ * Each physical connection also keeps a {@link StatementCache} so that statements
+ * prepared through a handle are reused across borrows.
+ * @author Brandon Roos
+ */
+public class ConnectionPool {
+    /** How often the housekeeping task runs, in milliseconds. */
+    private static final long HOUSEKEEPING_INTERVAL_MILLIS = 15_000;
+    /** The timeout passed to {@link Connection#isValid(int)} when validating on borrow. */
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    /** The JDBC URL used to open physical connections. */
+    private final String jdbcUrl;
+    /** The number of connections kept open even when idle. */
+    private final int minSize;
+    /** The maximum number of connections the pool will open. */
+    private final int maxSize;
+    /** How long a caller waits for a free connection before giving up. */
+    private final long borrowTimeoutMillis;
+    /** How long a connection may sit idle before it is closed (down to minSize). */
+    private final long idleTimeoutMillis;
+    /** How long a connection may be borrowed before it is reported as a possible leak. */
+    private final long leakThresholdMillis;
+    /** The number of prepared statements cached per physical connection. */
+    private final int statementCacheSize;
+
+    /** One permit per connection that may be handed out. */
+    private final Semaphore permits;
+    /** Idle connections, most recently returned first. Guarded by itself. */
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    /** Connections currently handed out to callers. */
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    /** Runs idle eviction, minimum-size top-up and leak detection. */
+    private final ScheduledExecutorService housekeeper;
+    /** Set once the pool has been closed. */
+    private volatile boolean closed;
+
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong destroyedCount = new AtomicLong();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong borrowTimeoutCount = new AtomicLong();
+    private final AtomicLong validationFailureCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+    private final AtomicLong statementCacheEvictions = new AtomicLong();
+
+    /**
+     * Constructs a new ConnectionPool and opens the minimum number of connections.
+     *
+     * @param jdbcUrl the JDBC URL used to open physical connections.
+     * @param minSize the number of connections kept open even when idle.
+     * @param maxSize the maximum number of connections the pool will open.
+     * @param borrowTimeoutMillis how long {@link #borrow()} waits for a free connection.
+     * @param idleTimeoutMillis how long a connection may sit idle before it is closed.
+     * @param leakThresholdMillis how long a connection may be held before it is reported as leaked.
+     * @param statementCacheSize the number of prepared statements cached per connection (0 disables caching).
+     */
+    public ConnectionPool(String jdbcUrl, int minSize, int maxSize, long borrowTimeoutMillis, long idleTimeoutMillis, long leakThresholdMillis, int statementCacheSize) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.jdbcUrl = jdbcUrl;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+
+        fillToMinimum();
+        housekeeper.scheduleWithFixedDelay(this::housekeep, HOUSEKEEPING_INTERVAL_MILLIS, HOUSEKEEPING_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool, waiting up to the borrow timeout for one to become free.
+     * The returned connection must be closed by the caller to return it to the pool.
+     * @return A Connection handle backed by a pooled physical connection.
+     * @throws SQLException if the pool is closed, the wait times out, or a new connection cannot be opened.
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool has been closed.");
+        }
+        long waitStart = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                borrowTimeoutCount.incrementAndGet();
+                throw new SQLException("Timed out after " + borrowTimeoutMillis + " ms waiting for a database connection ("
+                        + borrowed.size() + " of " + maxSize + " in use).", "08001");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", "08001", e);
+        }
+        recordWait(System.nanoTime() - waitStart);
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = pollIdle()) != null) {
+                if (isUsable(pooled)) {
+                    break;
+                }
+                validationFailureCount.incrementAndGet();
+                destroy(pooled);
+            }
+            if (pooled == null) {
+                pooled = create();
+            }
+            pooled.borrowedAt = System.currentTimeMillis();
+            pooled.borrowSite = new Throwable("Connection borrowed here");
+            pooled.leakReported = false;
+            borrowed.add(pooled);
+            borrowCount.incrementAndGet();
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a snapshot of the pool's current state and lifetime counters.
+     * @return The pool statistics.
+     */
+    public Statistics getStatistics() {
+        int idleCount;
+        synchronized (idle) {
+            idleCount = idle.size();
+        }
+        long borrows = borrowCount.get();
+        return new Statistics(idleCount, borrowed.size(), minSize, maxSize, permits.getQueueLength(),
+                createdCount.get(), destroyedCount.get(), borrows, borrowTimeoutCount.get(),
+                validationFailureCount.get(), leakCount.get(),
+                borrows == 0 ? 0.0 : totalWaitNanos.get() / 1_000_000.0 / borrows,
+                maxWaitNanos.get() / 1_000_000.0,
+                statementCacheHits.get(), statementCacheMisses.get(), statementCacheEvictions.get());
+    }
+
+    /**
+     * Closes all idle connections and stops housekeeping. Connections still borrowed
+     * are closed as they are returned.
+     */
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        List<PooledConnection> toClose;
+        synchronized (idle) {
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+        }
+        for (PooledConnection pooled : toClose) {
+            destroy(pooled);
+        }
+        if (!borrowed.isEmpty()) {
+            System.err.println("Connection pool closed with " + borrowed.size() + " connection(s) still borrowed.");
+        }
+    }
+
+    private PooledConnection pollIdle() {
+        synchronized (idle) {
+            return idle.pollFirst();
+        }
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            return pooled.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection create() throws SQLException {
+        PooledConnection pooled = new PooledConnection(DriverManager.getConnection(jdbcUrl));
+        createdCount.incrementAndGet();
+        return pooled;
+    }
+
+    private void destroy(PooledConnection pooled) {
+        pooled.statementCache.closeAll();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            // The connection is being discarded either way.
+        }
+        destroyedCount.incrementAndGet();
+    }
+
+    private void recordWait(long nanos) {
+        totalWaitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Returns a physical connection to the idle set, or discards it if it can no longer be reused.
+     */
+    private void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+        try {
+            if (!closed && reset(pooled)) {
+                pooled.lastReturnedAt = System.currentTimeMillis();
+                synchronized (idle) {
+                    idle.addFirst(pooled);
+                }
+            } else {
+                destroy(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Restores a returned connection to the state callers expect from a fresh one.
+     */
+    private boolean reset(PooledConnection pooled) {
+        Connection conn = pooled.physical;
+        try {
+            if (conn.isClosed()) {
+                return false;
+            }
+            if (!conn.getAutoCommit()) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+            if (conn.isReadOnly()) {
+                conn.setReadOnly(false);
+            }
+            conn.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void fillToMinimum() {
+        while (!closed) {
+            synchronized (idle) {
+                if (idle.size() + borrowed.size() >= minSize) {
+                    return;
+                }
+            }
+            if (!permits.tryAcquire()) {
+                return;
+            }
+            try {
+                PooledConnection pooled = create();
+                pooled.lastReturnedAt = System.currentTimeMillis();
+                synchronized (idle) {
+                    idle.addLast(pooled);
+                }
+            } catch (SQLException e) {
+                System.err.println("Unable to pre-open pooled connection: " + e.getMessage());
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Evicts idle connections past the idle timeout, tops the pool back up to its
+     * minimum size and reports connections held past the leak threshold.
+     */
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+        List<PooledConnection> expired = new ArrayList<>();
+        synchronized (idle) {
+            int total = idle.size() + borrowed.size();
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext() && total > minSize) {
+                PooledConnection pooled = it.next();
+                if (now - pooled.lastReturnedAt >= idleTimeoutMillis) {
+                    it.remove();
+                    expired.add(pooled);
+                    total--;
+                }
+            }
+        }
+        for (PooledConnection pooled : expired) {
+            destroy(pooled);
+        }
+        fillToMinimum();
+
+        for (PooledConnection pooled : borrowed) {
+            long heldFor = now - pooled.borrowedAt;
+            if (!pooled.leakReported && heldFor >= leakThresholdMillis) {
+                pooled.leakReported = true;
+                leakCount.incrementAndGet();
+                System.err.println("Possible connection leak: connection held for " + heldFor + " ms.");
+                pooled.borrowSite.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool along with its bookkeeping.
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statementCache;
+        private volatile long lastReturnedAt;
+        private volatile long borrowedAt;
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statementCache = new StatementCache(statementCacheSize, statementCacheHits, statementCacheMisses, statementCacheEvictions);
+        }
+
+        /**
+         * Creates a new logical handle for one borrow. Each borrow gets its own handle so that
+         * closing a stale handle twice cannot return the connection to the pool twice.
+         */
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new Handle(this));
+        }
+    }
+
+    /**
+     * Routes calls on a borrowed handle to the physical connection, and turns
+     * {@code close()} into a return to the pool.
+     */
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean handleClosed;
+
+        private Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (!handleClosed) {
+                        handleClosed = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return handleClosed || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + (handleClosed ? ", closed" : "") + "]";
+                default:
+                    break;
+            }
+            if (handleClosed) {
+                throw new SQLException("Connection has already been returned to the pool.", "08003");
+            }
+            if (name.equals("prepareStatement") && args.length == 1) {
+                return pooled.statementCache.prepare(pooled.physical, (String) args[0]);
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * A point-in-time snapshot of the pool's size and usage counters.
+     */
+    public static class Statistics {
+        private final int idleConnections;
+        private final int activeConnections;
+        private final int minSize;
+        private final int maxSize;
+        private final int waitingThreads;
+        private final long createdCount;
+        private final long destroyedCount;
+        private final long borrowCount;
+        private final long borrowTimeoutCount;
+        private final long validationFailureCount;
+        private final long leakCount;
+        private final double averageWaitMillis;
+        private final double maxWaitMillis;
+        private final long statementCacheHits;
+        private final long statementCacheMisses;
+        private final long statementCacheEvictions;
+
+        private Statistics(int idleConnections, int activeConnections, int minSize, int maxSize, int waitingThreads,
+                           long createdCount, long destroyedCount, long borrowCount, long borrowTimeoutCount,
+                           long validationFailureCount, long leakCount, double averageWaitMillis, double maxWaitMillis,
+                           long statementCacheHits, long statementCacheMisses, long statementCacheEvictions) {
+            this.idleConnections = idleConnections;
+            this.activeConnections = activeConnections;
+            this.minSize = minSize;
+            this.maxSize = maxSize;
+            this.waitingThreads = waitingThreads;
+            this.createdCount = createdCount;
+            this.destroyedCount = destroyedCount;
+            this.borrowCount = borrowCount;
+            this.borrowTimeoutCount = borrowTimeoutCount;
+            this.validationFailureCount = validationFailureCount;
+            this.leakCount = leakCount;
+            this.averageWaitMillis = averageWaitMillis;
+            this.maxWaitMillis = maxWaitMillis;
+            this.statementCacheHits = statementCacheHits;
+            this.statementCacheMisses = statementCacheMisses;
+            this.statementCacheEvictions = statementCacheEvictions;
+        }
+
+        /**
+         * Gets the number of open connections not currently borrowed.
+         * @return The idle connection count.
+         */
+        public int getIdleConnections() { return idleConnections; }
+        /**
+         * Gets the number of connections currently borrowed.
+         * @return The active connection count.
+         */
+        public int getActiveConnections() { return activeConnections; }
+        /**
+         * Gets the configured minimum pool size.
+         * @return The minimum size.
+         */
+        public int getMinSize() { return minSize; }
+        /**
+         * Gets the configured maximum pool size.
+         * @return The maximum size.
+         */
+        public int getMaxSize() { return maxSize; }
+        /**
+         * Gets the number of threads currently waiting for a connection.
+         * @return The waiting thread count.
+         */
+        public int getWaitingThreads() { return waitingThreads; }
+        /**
+         * Gets the number of physical connections opened over the pool's lifetime.
+         * @return The created count.
+         */
+        public long getCreatedCount() { return createdCount; }
+        /**
+         * Gets the number of physical connections closed over the pool's lifetime.
+         * @return The destroyed count.
+         */
+        public long getDestroyedCount() { return destroyedCount; }
+        /**
+         * Gets the number of successful borrows.
+         * @return The borrow count.
+         */
+        public long getBorrowCount() { return borrowCount; }
+        /**
+         * Gets the number of borrows that timed out waiting for a connection.
+         * @return The borrow timeout count.
+         */
+        public long getBorrowTimeoutCount() { return borrowTimeoutCount; }
+        /**
+         * Gets the number of idle connections discarded because they failed validation.
+         * @return The validation failure count.
+         */
+        public long getValidationFailureCount() { return validationFailureCount; }
+        /**
+         * Gets the number of connections reported as possible leaks.
+         * @return The leak count.
+         */
+        public long getLeakCount() { return leakCount; }
+        /**
+         * Gets the average time callers waited for a connection permit.
+         * @return The average wait in milliseconds.
+         */
+        public double getAverageWaitMillis() { return averageWaitMillis; }
+        /**
+         * Gets the longest time a caller waited for a connection permit.
+         * @return The maximum wait in milliseconds.
+         */
+        public double getMaxWaitMillis() { return maxWaitMillis; }
+        /**
+         * Gets the number of prepares served from a connection's statement cache.
+         * @return The statement cache hit count.
+         */
+        public long getStatementCacheHits() { return statementCacheHits; }
+        /**
+         * Gets the number of prepares that compiled a new statement.
+         * @return The statement cache miss count.
+         */
+        public long getStatementCacheMisses() { return statementCacheMisses; }
+        /**
+         * Gets the number of cached statements closed to stay within the cache bound.
+         * @return The statement cache eviction count.
+         */
+        public long getStatementCacheEvictions() { return statementCacheEvictions; }
+        /**
+         * Gets the fraction of prepares served from a statement cache.
+         * @return The hit rate between 0.0 and 1.0.
+         */
+        public double getStatementCacheHitRate() {
+            long total = statementCacheHits + statementCacheMisses;
+            return total == 0 ? 0.0 : (double) statementCacheHits / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ConnectionPool[active=%d, idle=%d, min=%d, max=%d, waiting=%d, created=%d, destroyed=%d, " +
+                            "borrows=%d, timeouts=%d, validationFailures=%d, leaks=%d, avgWait=%.3fms, maxWait=%.3fms, " +
+                            "stmtCacheHits=%d, stmtCacheMisses=%d, stmtCacheEvictions=%d, stmtCacheHitRate=%.1f%%]",
+                    activeConnections, idleConnections, minSize, maxSize, waitingThreads, createdCount, destroyedCount,
+                    borrowCount, borrowTimeoutCount, validationFailureCount, leakCount, averageWaitMillis, maxWaitMillis,
+                    statementCacheHits, statementCacheMisses, statementCacheEvictions, getStatementCacheHitRate() * 100);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes RFC 4180 CSV rows to a file through a fixed-size buffer, optionally gzip-compressed.
+ * Memory use does not grow with the number of rows: each row is encoded into the buffer and
+ * the buffer is written to the file channel whenever it fills.
+ * @author Brandon Roos
+ */
+public class CsvWriter implements Closeable {
+    /** The size of the write buffer, in bytes. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final byte[] LINE_END = {'\r', '\n'};
+
+    /** The channel rows are written to: the file itself, or a gzip stream over it. */
+    private final WritableByteChannel out;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final StringBuilder row = new StringBuilder(256);
+    private long rowCount;
+
+    /**
+     * Opens a CSV file for writing, replacing any existing file.
+     *
+     * @param file the file to write.
+     * @param gzip true to gzip-compress the output.
+     * @throws IOException if the file cannot be opened.
+     */
+    public CsvWriter(Path file, boolean gzip) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        try {
+            this.out = gzip
+                    ? Channels.newChannel(new GZIPOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE))
+                    : channel;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes one row. Null fields are written as empty; fields containing a comma,
+     * quote or line break are quoted.
+     * @param fields The values of the row.
+     * @throws IOException if the row cannot be written.
+     */
+    public void writeRow(Object... fields) throws IOException {
+        row.setLength(0);
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                row.append(',');
+            }
+            appendField(fields[i] == null ? "" : fields[i].toString());
+        }
+        byte[] bytes = row.toString().getBytes(StandardCharsets.UTF_8);
+        put(bytes);
+        put(LINE_END);
+        rowCount++;
+    }
+
+    /**
+     * Gets the number of rows written so far.
+     * @return The row count.
+     */
+    public long getRowCount() { return rowCount; }
+
+    /**
+     * Writes any buffered rows and closes the file.
+     * @throws IOException if the file cannot be written or closed.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void appendField(String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            row.append(value);
+            return;
+        }
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                row.append('"');
+            }
+            row.append(c);
+        }
+        row.append('"');
+    }
+
+    private void put(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.remaining()) {
+            flush();
+            if (bytes.length > buffer.capacity()) {
+                writeFully(ByteBuffer.wrap(bytes));
+                return;
+            }
+        }
+        buffer.put(bytes);
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            out.write(data);
+        }
+    }
+}
@@ -8,7 +8,7 @@ import java.sql.SQLException;
  * @author Brandon Roos
  */
 public class EditUserDialog extends JDialog {
-    private JTextField firstNameField, lastNameField, emailField, passwordField;
+    private JTextField firstNameField, lastNameField, emailField, phoneField, passwordField;
     private JComboBox<User.Role> roleComboBox;
     private VolunteerDatabase dbManager;
     private User userToEdit;
@@ -24,13 +24,14 @@ public class EditUserDialog extends JDialog {
         super(parent, "Edit User", true);
         this.dbManager = dbManager;
         this.userToEdit = userToEdit;
-        setSize(400, 300);
-        setLayout(new GridLayout(6, 2, 10, 10));
+        setSize(400, 340);
+        setLayout(new GridLayout(7, 2, 10, 10));
         setLocationRelativeTo(parent);
 
         firstNameField = new JTextField(userToEdit.getFirstName());
         lastNameField = new JTextField(userToEdit.getLastName());
         emailField = new JTextField(userToEdit.getEmail());
+        phoneField = new JTextField(userToEdit.getPhoneNumber());
         passwordField = new JPasswordField(userToEdit.getPassword());
 
         roleComboBox = new JComboBox<>(User.Role.values());
@@ -40,6 +41,7 @@ public class EditUserDialog extends JDialog {
         add(new JLabel("First Name:")); add(firstNameField);
         add(new JLabel("Last Name:")); add(lastNameField);
         add(new JLabel("Email:")); add(emailField);
+        add(new JLabel("Phone Number:")); add(phoneField);
         add(new JLabel("Role:")); add(roleComboBox);
 
         JButton saveButton = new JButton("Save Changes");
@@ -50,14 +52,17 @@ public class EditUserDialog extends JDialog {
     }
 
     private void saveChanges() {
-        userToEdit.setFirstName(firstNameField.getText());
-        userToEdit.setLastName(lastNameField.getText());
-        userToEdit.setEmail(emailField.getText());
-        userToEdit.setPassword(passwordField.getText());
-        userToEdit.setRole((User.Role) roleComboBox.getSelectedItem());
+        // Build the edited user from the form so userToEdit is unchanged if the update fails
+        User edited = new User(userToEdit);
+        edited.setFirstName(firstNameField.getText());
+        edited.setLastName(lastNameField.getText());
+        edited.setEmail(emailField.getText());
+        edited.setPhoneNumber(phoneField.getText());
+        edited.setPassword(passwordField.getText());
+        edited.setRole((User.Role) roleComboBox.getSelectedItem());
 
         try {
-            dbManager.updateUser(userToEdit);
+            dbManager.updateUser(edited);
             JOptionPane.showMessageDialog(this, "User updated successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
             dispose();
         } catch (SQLException ex) {
@@ -0,0 +1,249 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * A bounded, thread-safe read-through cache of entities by ID.
+ * Entries are evicted in least-recently-used order once the cache is full, and
+ * expire after a fixed time-to-live so that changes made outside this process
+ * are eventually picked up. Hit, miss and eviction counts are kept for tuning.
+ * @param <K> the type of the entity ID.
+ * @param <V> the type of the cached entity.
+ * @author Brandon Roos
+ */
+public class EntityCache<K, V> {
+    /** A name for the cache, used in statistics. */
+    private final String name;
+    /** The maximum number of entries kept. */
+    private final int maxSize;
+    /** How long an entry stays valid, in nanoseconds. */
+    private final long ttlNanos;
+    /** Cached entries in least-recently-used order. Guarded by this. */
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+    /** Incremented on every invalidation, so a load that raced with a write is not cached. */
+    private long version;
+
+    /**
+     * Constructs a new EntityCache.
+     *
+     * @param name a name for the cache, used in statistics.
+     * @param maxSize the maximum number of entries kept.
+     * @param ttl how long an entry stays valid.
+     * @param unit the unit of ttl.
+     */
+    public EntityCache(String name, int maxSize, long ttl, TimeUnit unit) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns the cached value for an ID, loading and caching it on a miss.
+     * Null results are returned but not cached, and neither is a value whose entity
+     * was invalidated while it was being loaded.
+     * @param key The entity ID.
+     * @param loader Loads the entity when it is not cached.
+     * @return The entity, or null if the loader found none.
+     * @throws E if the loader fails.
+     */
+    public <E extends Exception> V get(K key, Loader<K, V, E> loader) throws E {
+        V cached = getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long versionBeforeLoad;
+        synchronized (this) {
+            versionBeforeLoad = version;
+        }
+        V loaded = loader.load(key);
+        if (loaded != null) {
+            synchronized (this) {
+                if (version == versionBeforeLoad) {
+                    put(key, loaded);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Returns the cached value for an ID without loading it.
+     * @param key The entity ID.
+     * @return The cached entity, or null if it is not cached or has expired.
+     */
+    public synchronized V getIfPresent(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (System.nanoTime() - entry.loadedAt >= ttlNanos) {
+            entries.remove(key);
+            expirations++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    /**
+     * Caches a value, evicting the least recently used entry if the cache is full.
+     * @param key The entity ID.
+     * @param value The entity.
+     */
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, System.nanoTime()));
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while (entries.size() > maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Removes an entry, so the next read goes to the database.
+     * @param key The entity ID.
+     */
+    public synchronized void invalidate(K key) {
+        version++;
+        if (entries.remove(key) != null) {
+            invalidations++;
+        }
+    }
+
+    /**
+     * Removes the entries for several entities.
+     * @param items The entities to remove.
+     * @param keyOf Extracts the ID of an entity.
+     */
+    public synchronized <T> void invalidateAll(Iterable<T> items, Function<T, K> keyOf) {
+        for (T item : items) {
+            invalidate(keyOf.apply(item));
+        }
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public synchronized void clear() {
+        version++;
+        invalidations += entries.size();
+        entries.clear();
+    }
+
+    /**
+     * Returns a snapshot of the cache's size and counters.
+     * @return The cache statistics.
+     */
+    public synchronized Statistics getStatistics() {
+        return new Statistics(name, entries.size(), maxSize, hits, misses, evictions, expirations, invalidations);
+    }
+
+    /**
+     * Loads an entity that is not in the cache.
+     */
+    public interface Loader<K, V, E extends Exception> {
+        V load(K key) throws E;
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long loadedAt;
+
+        private Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    /**
+     * A point-in-time snapshot of a cache's size and counters.
+     */
+    public static class Statistics {
+        private final String name;
+        private final int size;
+        private final int maxSize;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long expirations;
+        private final long invalidations;
+
+        private Statistics(String name, int size, int maxSize, long hits, long misses, long evictions, long expirations, long invalidations) {
+            this.name = name;
+            this.size = size;
+            this.maxSize = maxSize;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.expirations = expirations;
+            this.invalidations = invalidations;
+        }
+
+        /**
+         * Gets the name of the cache.
+         * @return The cache name.
+         */
+        public String getName() { return name; }
+        /**
+         * Gets the number of entries currently cached.
+         * @return The cache size.
+         */
+        public int getSize() { return size; }
+        /**
+         * Gets the maximum number of entries kept.
+         * @return The maximum size.
+         */
+        public int getMaxSize() { return maxSize; }
+        /**
+         * Gets the number of reads served from the cache.
+         * @return The hit count.
+         */
+        public long getHits() { return hits; }
+        /**
+         * Gets the number of reads that had to go to the database.
+         * @return The miss count.
+         */
+        public long getMisses() { return misses; }
+        /**
+         * Gets the number of entries dropped to stay within the size bound.
+         * @return The eviction count.
+         */
+        public long getEvictions() { return evictions; }
+        /**
+         * Gets the number of entries dropped because they outlived the time-to-live.
+         * @return The expiration count.
+         */
+        public long getExpirations() { return expirations; }
+        /**
+         * Gets the number of entries removed because the entity changed.
+         * @return The invalidation count.
+         */
+        public long getInvalidations() { return invalidations; }
+        /**
+         * Gets the fraction of reads served from the cache.
+         * @return The hit rate between 0.0 and 1.0.
+         */
+        public double getHitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("EntityCache[%s: size=%d/%d, hits=%d, misses=%d, hitRate=%.1f%%, evictions=%d, expirations=%d, invalidations=%d]",
+                    name, size, maxSize, hits, misses, getHitRate() * 100, evictions, expirations, invalidations);
+        }
+    }
+}
@@ -1,6 +1,10 @@
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
-import java.util.ArrayList;
+import java.util.Set;
+import java.sql.SQLException;
 import java.sql.Time;
 
 /**
@@ -32,8 +36,23 @@ public class Event {
     private String orgID;
     /** Contact information for the event. */
     private String contactInfo;
-    /** A list of volunteers currently registered for the event. */
-    private List<User> registeredVolunteers;
+    /** The IDs of the volunteers registered for the event; null until first needed. */
+    private Set<String> registeredUserIDs;
+    /** Loads the registered user IDs from the database, or null for an event that was never saved. */
+    private RegistrationLoader registrationLoader;
+
+    /**
+     * Loads the IDs of the volunteers registered for an event.
+     */
+    public interface RegistrationLoader {
+        /**
+         * Loads the registrations of an event.
+         * @param eventID The ID of the event.
+         * @return The IDs of the registered volunteers.
+         * @throws SQLException if a database access error occurs.
+         */
+        Set<String> load(String eventID) throws SQLException;
+    }
 
     /**
      * Constructs a new Event object.
@@ -63,21 +82,55 @@ public class Event {
         this.requiredSkills = requiredSkills;
         this.orgID = orgID;
         this.contactInfo = contactInfo;
-        this.registeredVolunteers = new ArrayList<>();
     }
 
     /**
-     * Adds a volunteer to the event if there are available slots.
+     * Constructs a copy of another Event, sharing none of its mutable state. Registrations
+     * already loaded are copied; otherwise the copy loads them itself on first use.
+     *
+     * @param other the event to copy.
+     */
+    public Event(Event other) {
+        synchronized (other) {
+            this.eventID = other.eventID;
+            this.title = other.title;
+            this.description = other.description;
+            this.date = other.date == null ? null : new Date(other.date.getTime());
+            this.startTime = other.startTime == null ? null : new Time(other.startTime.getTime());
+            this.endTime = other.endTime == null ? null : new Time(other.endTime.getTime());
+            this.location = other.location;
+            this.maxVolunteers = other.maxVolunteers;
+            this.currentVolunteers = other.currentVolunteers;
+            this.requiredSkills = other.requiredSkills == null ? null : new ArrayList<>(other.requiredSkills);
+            this.orgID = other.orgID;
+            this.contactInfo = other.contactInfo;
+            this.registeredUserIDs = other.registeredUserIDs == null ? null : new HashSet<>(other.registeredUserIDs);
+            this.registrationLoader = other.registrationLoader;
+        }
+    }
+
+    /**
+     * Adds a volunteer to this in-memory event if there are available slots.
+     * The check and the increment happen atomically, so concurrent callers cannot
+     * overfill the event. Registrations that must persist go through
+     * {@link RegistrationService} instead.
      *
      * @param volunteer the User object to add.
+     * @return true if the volunteer was added, false if the event is full.
      */
-    public void addVolunteer(User volunteer) {
+    public synchronized boolean addVolunteer(User volunteer) {
+        if (isRegistered(volunteer.getUserID())) {
+            System.out.println(volunteer.getFirstName() + " is already registered for the event: " + this.title);
+            return false;
+        }
         if (!isFull()) {
-            this.registeredVolunteers.add(volunteer);
+            registrations().add(volunteer.getUserID());
             this.currentVolunteers++;
             System.out.println(volunteer.getFirstName() + " has been added to the event: " + this.title);
+            return true;
         } else {
             System.out.println("The event is full. Cannot add " + volunteer.getFirstName() + ".");
+            return false;
         }
     }
 
@@ -86,8 +139,8 @@ public class Event {
      *
      * @param volunteer the User object to remove.
      */
-    public void removeVolunteer(User volunteer) {
-        if (this.registeredVolunteers.remove(volunteer)) {
+    public synchronized void removeVolunteer(User volunteer) {
+        if (registrations().remove(volunteer.getUserID())) {
             this.currentVolunteers--;
             System.out.println(volunteer.getFirstName() + " has been removed from the event: " + this.title);
         } else {
@@ -95,6 +148,51 @@ public class Event {
         }
     }
 
+    /**
+     * Checks whether a volunteer is registered for the event.
+     *
+     * @param userID the ID of the volunteer.
+     * @return true if the volunteer is registered, false otherwise.
+     */
+    public synchronized boolean isRegistered(String userID) {
+        return registrations().contains(userID);
+    }
+
+    /**
+     * Gets the IDs of the volunteers registered for the event.
+     *
+     * @return a read-only view of the registered user IDs.
+     */
+    public synchronized Set<String> getRegisteredUserIDs() {
+        return Collections.unmodifiableSet(registrations());
+    }
+
+    /**
+     * Sets how the event's registrations are loaded. They are read on first use and
+     * then kept in memory.
+     *
+     * @param registrationLoader loads the registered user IDs from the database.
+     */
+    public synchronized void setRegistrationLoader(RegistrationLoader registrationLoader) {
+        this.registrationLoader = registrationLoader;
+        this.registeredUserIDs = null;
+    }
+
+    private Set<String> registrations() {
+        if (registeredUserIDs == null) {
+            if (registrationLoader == null) {
+                registeredUserIDs = new HashSet<>();
+            } else {
+                try {
+                    registeredUserIDs = new HashSet<>(registrationLoader.load(eventID));
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Could not load registrations for event " + eventID + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return registeredUserIDs;
+    }
+
     /**
      * Returns the details of the event.
      *
@@ -113,7 +211,7 @@ public class Event {
      *
      * @return true if the event is full, false otherwise.
      */
-    public boolean isFull() {
+    public synchronized boolean isFull() {
         return this.currentVolunteers >= this.maxVolunteers;
     }
 
@@ -122,7 +220,7 @@ public class Event {
      *
      * @return the number of available slots.
      */
-    public int getRemainingSlots() {
+    public synchronized int getRemainingSlots() {
         return this.maxVolunteers - this.currentVolunteers;
     }
 
@@ -170,7 +268,12 @@ public class Event {
      * Gets the current number of volunteers.
      * @return The current number of volunteers.
      */
-    public int getCurrentVolunteers() { return currentVolunteers; }
+    public synchronized int getCurrentVolunteers() { return currentVolunteers; }
+    /**
+     * Sets the current number of volunteers, as stored in the database.
+     * @param currentVolunteers The current number of volunteers.
+     */
+    public synchronized void setCurrentVolunteers(int currentVolunteers) { this.currentVolunteers = currentVolunteers; }
     /**
      * Gets the list of required skills.
      * @return The list of skills.
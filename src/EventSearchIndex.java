@@ -0,0 +1,395 @@
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An in-memory full-text index over event titles and descriptions, for type-ahead search.
+ * Text is split into lower-case words, common stop words are dropped, and each word is reduced
+ * by a light suffix stemmer so "tutoring" and "tutors" both match "tutor". Every query word
+ * must match. All but the last query word are matched on their stems; the last one is treated
+ * as a prefix of the words in the index, found with a sorted map, so results appear while
+ * the user is still typing. Matches are ranked with BM25, counting title words
+ * {@link #TITLE_WEIGHT} times.
+ * <p>
+ * Each event is a document numbered by slot, and each term keeps a growing array of the
+ * documents containing it with their term frequencies. An event that is indexed again gets a
+ * new slot and its old slot is marked dead; dead postings are skipped while scoring.
+ * @author Brandon Roos
+ */
+public class EventSearchIndex {
+    /** How many times a word in the title counts compared to one in the description. */
+    private static final int TITLE_WEIGHT = 3;
+    /** BM25 term frequency saturation. */
+    private static final double K1 = 1.2;
+    /** BM25 document length normalization. */
+    private static final double B = 0.75;
+    /** The most index words a prefix is expanded to, so a one-letter prefix stays fast. */
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+            "of", "on", "or", "the", "this", "to", "with"));
+
+    /** Postings by stemmed term, for complete query words. */
+    private final Map<String, Postings> stems = new HashMap<>();
+    /** Postings by unstemmed word, in order, for prefix matching. */
+    private final NavigableMap<String, Postings> words = new TreeMap<>();
+    /** The slot of each live event. */
+    private final Map<String, Integer> slotByEventID = new HashMap<>();
+
+    private String[] eventIDs = new String[256];
+    private String[] titles = new String[256];
+    private int[] lengths = new int[256];
+    private boolean[] live = new boolean[256];
+    private int slotCount;
+    private long totalLength;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Loads every event from the database into a new index.
+     * @param dbManager The database manager instance.
+     * @return The populated index.
+     * @throws SQLException if the events cannot be loaded.
+     */
+    public static EventSearchIndex load(VolunteerDatabase dbManager) throws SQLException {
+        EventSearchIndex index = new EventSearchIndex();
+        dbManager.forEachEvent(index::updateEvent);
+        return index;
+    }
+
+    /**
+     * Adds an event to the index, replacing any earlier version of it.
+     * @param event The event that was created or changed.
+     */
+    public void updateEvent(Event event) {
+        Map<String, Integer> stemCounts = new HashMap<>();
+        Map<String, Integer> wordCounts = new HashMap<>();
+        int length = count(event.getTitle(), TITLE_WEIGHT, stemCounts, wordCounts)
+                + count(event.getDescription(), 1, stemCounts, wordCounts);
+
+        lock.writeLock().lock();
+        try {
+            Integer old = slotByEventID.get(event.getEventID());
+            if (old != null) {
+                live[old] = false;
+                totalLength -= lengths[old];
+            }
+            int slot = allocateSlot();
+            eventIDs[slot] = event.getEventID();
+            titles[slot] = event.getTitle();
+            lengths[slot] = length;
+            live[slot] = true;
+            totalLength += length;
+            slotByEventID.put(event.getEventID(), slot);
+            for (Map.Entry<String, Integer> entry : stemCounts.entrySet()) {
+                stems.computeIfAbsent(entry.getKey(), k -> new Postings()).add(slot, entry.getValue());
+            }
+            for (Map.Entry<String, Integer> entry : wordCounts.entrySet()) {
+                words.computeIfAbsent(entry.getKey(), k -> new Postings()).add(slot, entry.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes an event from the search results.
+     * @param eventID The ID of the event.
+     */
+    public void removeEvent(String eventID) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByEventID.remove(eventID);
+            if (slot != null) {
+                live[slot] = false;
+                totalLength -= lengths[slot];
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the events matching a query, best first.
+     * @param query The words typed so far; the last word may be incomplete.
+     * @param limit The maximum number of results.
+     * @return The matching events.
+     */
+    public List<Hit> search(String query, int limit) {
+        if (query == null || limit <= 0) {
+            return new ArrayList<>();
+        }
+        List<String> terms = new ArrayList<>(tokenize(query));
+        // A query still being typed ends mid-word; match its last word as a prefix, even if
+        // it is short enough or common enough that the tokenizer dropped it
+        boolean prefixLast = !query.isEmpty() && Character.isLetterOrDigit(query.charAt(query.length() - 1));
+        if (prefixLast) {
+            String partial = lastWord(query);
+            if (terms.isEmpty() || !terms.get(terms.size() - 1).equals(partial)) {
+                terms.add(partial);
+            }
+        }
+        if (terms.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            int liveCount = slotByEventID.size();
+            if (liveCount == 0) {
+                return new ArrayList<>();
+            }
+            double averageLength = Math.max(1.0, (double) totalLength / liveCount);
+            double baseNorm = K1 * (1 - B);
+            double lengthNorm = K1 * B / averageLength;
+            // Complete words narrow the candidates cheapest when the rarest goes first
+            int completeWords = prefixLast ? terms.size() - 1 : terms.size();
+            terms.subList(0, completeWords).sort((a, b) -> Integer.compare(documentFrequency(a), documentFrequency(b)));
+            float[] scores = new float[slotCount];
+            float[] best = new float[slotCount];
+            int[] matched = new int[slotCount];
+            int[] candidates = null;
+            int candidateCount = 0;
+
+            for (int t = 0; t < terms.size(); t++) {
+                List<Postings> expansions = new ArrayList<>();
+                if (prefixLast && t == terms.size() - 1) {
+                    for (Postings postings : words.subMap(terms.get(t), true, terms.get(t) + Character.MAX_VALUE, false).values()) {
+                        expansions.add(postings);
+                        if (expansions.size() == MAX_PREFIX_EXPANSIONS) {
+                            break;
+                        }
+                    }
+                } else {
+                    Postings postings = stems.get(stem(terms.get(t)));
+                    if (postings != null) {
+                        expansions.add(postings);
+                    }
+                }
+                if (expansions.isEmpty()) {
+                    return new ArrayList<>();
+                }
+
+                // Score the term, keeping each document's best match among the prefix expansions
+                int[] touched = new int[16];
+                int touchedCount = 0;
+                for (Postings postings : expansions) {
+                    double idf = Math.log(1 + (liveCount - postings.size + 0.5) / (postings.size + 0.5));
+                    for (int i = 0; i < postings.size; i++) {
+                        int doc = postings.docs[i];
+                        if (!live[doc] || matched[doc] != t) {
+                            continue;
+                        }
+                        int tf = postings.counts[i];
+                        float score = (float) (idf * tf * (K1 + 1) / (tf + baseNorm + lengthNorm * lengths[doc]));
+                        if (best[doc] == 0) {
+                            if (touchedCount == touched.length) {
+                                touched = Arrays.copyOf(touched, touchedCount * 2);
+                            }
+                            touched[touchedCount++] = doc;
+                            best[doc] = score;
+                        } else if (score > best[doc]) {
+                            best[doc] = score;
+                        }
+                    }
+                }
+                for (int i = 0; i < touchedCount; i++) {
+                    int doc = touched[i];
+                    scores[doc] += best[doc];
+                    best[doc] = 0;
+                    matched[doc]++;
+                }
+                candidates = touched;
+                candidateCount = touchedCount;
+                if (candidateCount == 0) {
+                    return new ArrayList<>();
+                }
+            }
+
+            PriorityQueue<Integer> top = new PriorityQueue<>(limit + 1,
+                    (a, b) -> Float.compare(scores[a], scores[b]));
+            for (int i = 0; i < candidateCount; i++) {
+                int doc = candidates[i];
+                if (top.size() < limit) {
+                    top.add(doc);
+                } else if (scores[doc] > scores[top.peek()]) {
+                    top.poll();
+                    top.add(doc);
+                }
+            }
+            List<Hit> hits = new ArrayList<>(top.size());
+            for (int doc : top) {
+                hits.add(new Hit(eventIDs[doc], titles[doc], scores[doc]));
+            }
+            hits.sort((a, b) -> Double.compare(b.score, a.score));
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of events in the index.
+     * @return The indexed event count.
+     */
+    public int getEventCount() {
+        lock.readLock().lock();
+        try {
+            return slotByEventID.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Splits text into lower-case words, dropping stop words and single characters.
+     * @param text The text to split.
+     * @return The words, in order.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return Collections.emptyList();
+        }
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = text.substring(start, i).toLowerCase(Locale.ROOT);
+                if (token.length() > 1 && !STOP_WORDS.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Strips a common English suffix from a word, keeping at least three letters.
+     * @param word A lower-case word.
+     * @return The stem.
+     */
+    static String stem(String word) {
+        String[] suffixes = {"ings", "ing", "ers", "er", "ies", "ied", "es", "ed", "ly", "s"};
+        for (String suffix : suffixes) {
+            if (word.endsWith(suffix) && word.length() - suffix.length() >= 3) {
+                String stem = word.substring(0, word.length() - suffix.length());
+                if (suffix.startsWith("ie")) {
+                    return stem + "y";
+                }
+                // "running" -> "run", but "tutoring" -> "tutor"
+                int n = stem.length();
+                if (suffix.startsWith("ing") && n >= 4 && stem.charAt(n - 1) == stem.charAt(n - 2)
+                        && "lsz".indexOf(stem.charAt(n - 1)) < 0) {
+                    return stem.substring(0, n - 1);
+                }
+                return stem;
+            }
+        }
+        return word;
+    }
+
+    private int documentFrequency(String word) {
+        Postings postings = stems.get(stem(word));
+        return postings == null ? 0 : postings.size;
+    }
+
+    private static String lastWord(String text) {
+        int start = text.length();
+        while (start > 0 && Character.isLetterOrDigit(text.charAt(start - 1))) {
+            start--;
+        }
+        return text.substring(start).toLowerCase(Locale.ROOT);
+    }
+
+    private static int count(String text, int weight, Map<String, Integer> stemCounts, Map<String, Integer> wordCounts) {
+        List<String> tokens = tokenize(text);
+        for (String token : tokens) {
+            stemCounts.merge(stem(token), weight, Integer::sum);
+            wordCounts.merge(token, weight, Integer::sum);
+        }
+        return tokens.size() * weight;
+    }
+
+    private int allocateSlot() {
+        if (slotCount == eventIDs.length) {
+            int capacity = slotCount * 2;
+            eventIDs = Arrays.copyOf(eventIDs, capacity);
+            titles = Arrays.copyOf(titles, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            live = Arrays.copyOf(live, capacity);
+        }
+        return slotCount++;
+    }
+
+    /**
+     * The documents containing one term, in slot order, with the term's weighted frequency in each.
+     */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int[] counts = new int[4];
+        private int size;
+
+        private void add(int doc, int count) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            docs[size] = doc;
+            counts[size] = count;
+            size++;
+        }
+    }
+
+    /**
+     * An event matching a search.
+     */
+    public static class Hit {
+        private final String eventID;
+        private final String title;
+        private final double score;
+
+        private Hit(String eventID, String title, double score) {
+            this.eventID = eventID;
+            this.title = title;
+            this.score = score;
+        }
+
+        /**
+         * Gets the ID of the event.
+         * @return The event ID.
+         */
+        public String getEventID() { return eventID; }
+        /**
+         * Gets the title of the event.
+         * @return The event title.
+         */
+        public String getTitle() { return title; }
+        /**
+         * Gets the relevance of the event to the query.
+         * @return The BM25 score; higher is better.
+         */
+        public double getScore() { return score; }
+
+        @Override
+        public String toString() {
+            return String.format("%s (%.2f)", title, score);
+        }
+    }
+}
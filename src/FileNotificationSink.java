@@ -0,0 +1,45 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * A {@link NotificationSink} that appends each notification as one line of a text file.
+ * Useful for testing and for running without an email or SMS provider.
+ * @author Brandon Roos
+ */
+public class FileNotificationSink implements NotificationSink {
+    /** The file notifications are appended to. */
+    private final Path file;
+    private final SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * Constructs a new FileNotificationSink.
+     *
+     * @param file the file to append to; created if missing.
+     */
+    public FileNotificationSink(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public synchronized void deliver(Notification notification) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(format.format(new Date()) + "\t" + notification.getType() + "\t"
+                    + notification.getUserID() + "\t" + notification.getNotificationID() + "\t"
+                    + String.valueOf(notification.getMessage()).replace('\n', ' '));
+            writer.newLine();
+        }
+    }
+
+    /**
+     * Gets the file notifications are appended to.
+     * @return The path of the file.
+     */
+    public Path getFile() { return file; }
+}
@@ -1,33 +1,41 @@
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.sql.SQLException;
 import java.util.List;
 
 /**
  * A JDialog class for logging in.
- * This pop-out window provides fields for a user to log in and track their volunteer hours.
+ * This pop-out window provides fields for a user to log in and track their volunteer hours,
+ * or to sign up for an event.
  * @author Brandon Roos
  */
 public class LoginDialog extends JDialog {
+    /** The most events listed for a search. */
+    private static final int SEARCH_RESULTS = 20;
+
     private JTextField phoneNumberField;
-    private JComboBox<String> eventComboBox;
+    private JTextField eventSearchField;
+    private JComboBox<CheckInService.EventChoice> eventComboBox;
     private JRadioButton inRadioButton;
     private JRadioButton outRadioButton;
-    private VolunteerDatabase dbManager;
+    private JRadioButton signUpRadioButton;
+    private CheckInService checkInService;
 
     /**
      * Constructs a new LoginDialog.
      *
      * @param parent The parent JFrame from which this dialog is displayed.
-     * @param dbManager The database manager instance.
+     * @param checkInService The service that records check-ins, check-outs and sign-ups.
      */
-    public LoginDialog(JFrame parent, VolunteerDatabase dbManager) {
+    public LoginDialog(JFrame parent, CheckInService checkInService) {
         super(parent, "Login", true);
-        this.dbManager = dbManager;
-        setSize(400, 300);
+        this.checkInService = checkInService;
+        setSize(460, 340);
         setLayout(new BorderLayout(10, 10));
 
-        JPanel formPanel = new JPanel(new GridLayout(4, 2, 10, 10));
+        JPanel formPanel = new JPanel(new GridLayout(5, 2, 10, 10));
         formPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
 
         // Phone Number field
@@ -35,22 +43,38 @@ public class LoginDialog extends JDialog {
         phoneNumberField = new JTextField(15);
         formPanel.add(phoneNumberField);
 
+        // Event search; narrows the dropdown as the user types
+        formPanel.add(new JLabel("Search Events:"));
+        eventSearchField = new JTextField(15);
+        eventSearchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { populateEventComboBox(); }
+            @Override
+            public void removeUpdate(DocumentEvent e) { populateEventComboBox(); }
+            @Override
+            public void changedUpdate(DocumentEvent e) { populateEventComboBox(); }
+        });
+        formPanel.add(eventSearchField);
+
         // Event dropdown
         formPanel.add(new JLabel("Event:"));
         eventComboBox = new JComboBox<>();
         populateEventComboBox();
         formPanel.add(eventComboBox);
 
-        // In/Out radio buttons
-        formPanel.add(new JLabel("Time:"));
+        // In/Out/Sign up radio buttons
+        formPanel.add(new JLabel("Action:"));
         JPanel radioPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         inRadioButton = new JRadioButton("In");
         outRadioButton = new JRadioButton("Out");
+        signUpRadioButton = new JRadioButton("Sign up");
         ButtonGroup timeGroup = new ButtonGroup();
         timeGroup.add(inRadioButton);
         timeGroup.add(outRadioButton);
+        timeGroup.add(signUpRadioButton);
         radioPanel.add(inRadioButton);
         radioPanel.add(outRadioButton);
+        radioPanel.add(signUpRadioButton);
         formPanel.add(radioPanel);
 
         add(formPanel, BorderLayout.CENTER);
@@ -66,33 +90,67 @@ public class LoginDialog extends JDialog {
     }
 
     private void populateEventComboBox() {
-        try {
-            List<Event> events = dbManager.getAllEvents();
-            for (Event event : events) {
-                eventComboBox.addItem(event.getTitle());
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Error loading events: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        String query = eventSearchField.getText();
+        List<CheckInService.EventChoice> events = query.trim().isEmpty()
+                ? checkInService.getEvents()
+                : checkInService.searchEvents(query, SEARCH_RESULTS);
+        eventComboBox.setModel(new DefaultComboBoxModel<>(events.toArray(new CheckInService.EventChoice[0])));
     }
 
     private void processLogin() {
         String phoneNumber = phoneNumberField.getText();
-        String selectedEventTitle = (String) eventComboBox.getSelectedItem();
+        CheckInService.EventChoice selectedEvent = (CheckInService.EventChoice) eventComboBox.getSelectedItem();
         boolean isIn = inRadioButton.isSelected();
 
-        // This is where you would implement the logic to find the user by phone number
-        // and update their volunteer record with the time and event.
-        System.out.println("Phone Number: " + phoneNumber);
-        System.out.println("Selected Event: " + selectedEventTitle);
-        System.out.println("Time: " + (isIn ? "In" : "Out"));
+        if (selectedEvent == null || (!isIn && !outRadioButton.isSelected() && !signUpRadioButton.isSelected())) {
+            JOptionPane.showMessageDialog(this, "Please choose an event and In, Out or Sign up.", "Missing Information", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        if (signUpRadioButton.isSelected()) {
+            processSignUp(phoneNumber, selectedEvent);
+            return;
+        }
 
-        // Placeholder for database logic:
-        // 1. Find user by phone number
-        // 2. Find event by title
-        // 3. Create or update a VolunteerRecord in the database
+        try {
+            String message;
+            if (isIn) {
+                checkInService.checkIn(phoneNumber, selectedEvent.getEventID());
+                message = "Checked in to " + selectedEvent + ".";
+            } else {
+                CheckIn completed = checkInService.checkOut(phoneNumber, selectedEvent.getEventID());
+                message = String.format("Checked out of %s. %.2f hours submitted for approval.", selectedEvent, completed.getHours());
+            }
+            JOptionPane.showMessageDialog(this, message, "Success", JOptionPane.INFORMATION_MESSAGE);
+            dispose();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            JOptionPane.showMessageDialog(this, e.getMessage(), "Check-in Error", JOptionPane.WARNING_MESSAGE);
+        } catch (SQLException e) {
+            JOptionPane.showMessageDialog(this, "Error recording check-in: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
 
-        JOptionPane.showMessageDialog(this, "Login information processed.", "Success", JOptionPane.INFORMATION_MESSAGE);
-        dispose();
+    private void processSignUp(String phoneNumber, CheckInService.EventChoice event) {
+        try {
+            RegistrationResult result = checkInService.signUp(phoneNumber, event.getEventID());
+            switch (result) {
+                case REGISTERED:
+                    JOptionPane.showMessageDialog(this, "Signed up for " + event + ".", "Success", JOptionPane.INFORMATION_MESSAGE);
+                    dispose();
+                    break;
+                case ALREADY_REGISTERED:
+                    JOptionPane.showMessageDialog(this, "You are already signed up for " + event + ".", "Sign-up", JOptionPane.INFORMATION_MESSAGE);
+                    break;
+                case FULL:
+                    JOptionPane.showMessageDialog(this, event + " is full.", "Sign-up", JOptionPane.WARNING_MESSAGE);
+                    break;
+                default:
+                    JOptionPane.showMessageDialog(this, event + " no longer exists.", "Sign-up", JOptionPane.WARNING_MESSAGE);
+                    break;
+            }
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(this, e.getMessage(), "Sign-up Error", JOptionPane.WARNING_MESSAGE);
+        } catch (SQLException e) {
+            JOptionPane.showMessageDialog(this, "Error signing up: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+        }
     }
 }
\ No newline at end of file
@@ -1,7 +1,11 @@
 import javax.swing.SwingUtilities;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.SQLException;
 import java.sql.Time;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
@@ -14,6 +18,11 @@ import java.util.Random;
  */
 public class Main {
     private static VolunteerDatabase db;
+    private static NotificationDispatcher notificationDispatcher;
+    private static RegistrationService registrationService;
+    private static MatchingEngine matchingEngine;
+    private static ProximityIndex proximityIndex;
+    private static CheckInService checkInService;
 
     /**
      * The main method that starts the application.
@@ -26,10 +35,40 @@ public class Main {
 
         // Initialize the database
         db.initializeDatabase();
+        notificationDispatcher = new NotificationDispatcher(db, new FileNotificationSink(Paths.get("notifications.log")), 200, 2_000);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            // Stop delivering before the database it reads from is shut down
+            notificationDispatcher.stop();
+            db.shutdown();
+        }));
+
+        // Recompute the hour rollups from the records table when asked to
+        if (Arrays.asList(args).contains("--rebuild-rollups")) {
+            try {
+                int rows = db.rebuildHourRollups();
+                System.out.println("Rebuilt " + rows + " hour rollup rows.");
+            } catch (SQLException e) {
+                System.err.println("Error rebuilding hour rollups: " + e.getMessage());
+            }
+        }
+
+        // Generate every organization's hours report into the given directory and exit
+        int batchIndex = Arrays.asList(args).indexOf("--batch-reports");
+        if (batchIndex >= 0) {
+            Path directory = Paths.get(batchIndex + 1 < args.length ? args[batchIndex + 1] : "reports");
+            try {
+                new BatchReportJob(db, directory, Runtime.getRuntime().availableProcessors()).run();
+            } catch (SQLException | IOException e) {
+                System.err.println("Error generating batch reports: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return;
+        }
 
         // Populate the database with sample data if it's empty
         try {
-            if (db.getAllUsers().isEmpty()) {
+            if (db.getUsersPage(null, 1).isEmpty()) {
                 System.out.println("Populating database with sample data...");
                 populateDatabase();
             }
@@ -37,9 +76,39 @@ public class Main {
             System.err.println("Error checking for existing users: " + e.getMessage());
         }
 
+        // Deliver queued notifications in the background
+        notificationDispatcher.start();
+
+        // Every sign-up in the application goes through one registration service
+        registrationService = new RegistrationService(db);
+
+        // Build the matching engine and keep it current as events are published and filled
+        try {
+            matchingEngine = MatchingEngine.load(db);
+            db.addEventListener(matchingEngine::updateEvent);
+            registrationService.setMatchingEngine(matchingEngine);
+        } catch (SQLException e) {
+            System.err.println("Error loading the matching engine: " + e.getMessage());
+        }
+
+        // Place events on the map by ZIP code and follow newly published events
+        try {
+            proximityIndex = ProximityIndex.load(db, ZipCentroids.loadBundled());
+            db.addEventListener(proximityIndex::updateEvent);
+        } catch (IOException | SQLException e) {
+            System.err.println("Error loading the proximity index: " + e.getMessage());
+        }
+
+        // Load the kiosk's events and search index before the GUI starts, not on the Event Dispatch Thread
+        try {
+            checkInService = new CheckInService(db, registrationService);
+        } catch (SQLException e) {
+            System.err.println("Error loading the check-in service: " + e.getMessage());
+        }
+
         // Launch the GUI on the Event Dispatch Thread
         SwingUtilities.invokeLater(() -> {
-            new VolunteerHubGUI(db);
+            new VolunteerHubGUI(db, registrationService, checkInService);
         });
     }
 
@@ -54,22 +123,28 @@ public class Main {
             // Create and insert sample organizations
             Address luAddress = new Address("1971 University Blvd", "Lynchburg", "VA", "24515");
             Organization luOrg = new Organization("org-1", "Liberty University", "James Dollens", "jdollens@liberty.edu", "555-123-4567", "lu_pass", "University CSER program.", luAddress);
-            db.insertOrganization(luOrg);
 
             Address redCrossAddress = new Address("123 Main St", "Lynchburg", "VA", "24504");
             Organization redCrossOrg = new Organization("org-2", "Red Cross", "Jane Red", "info@redcross.org", "555-987-6543", "rc_pass", "Disaster relief organization.", redCrossAddress);
-            db.insertOrganization(redCrossOrg);
+
+            List<Organization> orgs = new ArrayList<>();
+            orgs.add(luOrg);
+            orgs.add(redCrossOrg);
+            printBatchResult("organizations", db.insertOrganizations(orgs));
 
             // Create and insert sample events
             List<String> skills1 = new ArrayList<>();
             skills1.add("Teaching");
             Event tutoringEvent = new Event("event-1", "Elementary Tutoring", "Help kids with homework", new Date(), new Time(15, 0, 0), new Time(17, 0, 0), luAddress, 10, skills1, luOrg.getOrgID(), luOrg.getContactEmail());
-            db.insertEvent(tutoringEvent);
 
             List<String> skills2 = new ArrayList<>();
             skills2.add("First Aid");
             Event bloodDriveEvent = new Event("event-2", "Community Blood Drive", "Assist with a local blood drive", new Date(), new Time(9, 0, 0), new Time(14, 0, 0), redCrossAddress, 25, skills2, redCrossOrg.getOrgID(), redCrossOrg.getContactEmail());
-            db.insertEvent(bloodDriveEvent);
+
+            List<Event> events = new ArrayList<>();
+            events.add(tutoringEvent);
+            events.add(bloodDriveEvent);
+            printBatchResult("events", db.insertEvents(events));
 
             System.out.println("Database populated with sample data.");
         } catch (SQLException e) {
@@ -78,11 +153,13 @@ public class Main {
     }
 
     /**
-     * Adds a specified number of random users to the database.
+     * Adds a specified number of random users to the database in a single batched transaction.
      * @param count The number of random users to add.
      */
     private static void addRandomUsers(int count) throws SQLException {
         Random rand = new Random();
+        String[] sampleSkills = {"Teaching", "First Aid", "Cooking", "Driving"};
+        List<User> users = new ArrayList<>(count);
         for (int i = 0; i < count; i++) {
             String userID = "user-" + UUID.randomUUID().toString();
             String firstName = "Random" + i;
@@ -91,8 +168,22 @@ public class Main {
             String password = "pass" + i;
             User.Role role = User.Role.VOLUNTEER; // Default role for random users
 
-            User newUser = new User(userID, firstName, lastName, email, password, role);
-            db.insertUser(newUser);
+            User user = new User(userID, firstName, lastName, email, password, role);
+            user.setSkills(Arrays.asList(sampleSkills[rand.nextInt(sampleSkills.length)]));
+            users.add(user);
+        }
+        printBatchResult("users", db.insertUsers(users));
+    }
+
+    /**
+     * Prints the outcome of a bulk insert, including any rows that were rejected.
+     * @param label A description of the rows that were inserted.
+     * @param result The result of the bulk insert.
+     */
+    private static void printBatchResult(String label, BatchInsertResult result) {
+        System.out.println(label + ": " + result);
+        for (BatchInsertResult.RowFailure failure : result.getFailures()) {
+            System.err.println("  " + failure);
         }
     }
-}
\ No newline at end of file
+}
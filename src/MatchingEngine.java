@@ -0,0 +1,315 @@
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Suggests open events to volunteers by skill, in memory.
+ * Every distinct skill is interned to a bit position, and each event's required skills are
+ * stored as a {@code long[]} bitset, so scoring an event for a volunteer is a handful of
+ * AND and {@link Long#bitCount(long)} operations on 64 skills at a time instead of comparing
+ * lists of strings. Events are kept in parallel arrays indexed by slot; a slot freed by
+ * {@link #removeEvent(String)} is reused by the next {@link #updateEvent(Event)}, so the index
+ * is maintained incrementally as events change rather than rebuilt.
+ * <p>
+ * An event is suggested only if it is today or later, has a free slot, shares at least one
+ * skill with the volunteer, and falls on a day the volunteer is not already registered for.
+ * Matches are ranked by the number of shared skills, then by date, soonest first.
+ * @author Brandon Roos
+ */
+public class MatchingEngine {
+    /** Bit position of each normalized skill. */
+    private final Map<String, Integer> skillBits = new HashMap<>();
+    /** Slot of each indexed event. */
+    private final Map<String, Integer> slotByEventID = new HashMap<>();
+
+    private String[] eventIDs = new String[64];
+    private long[][] eventSkills = new long[64][];
+    private int[] eventDays = new int[64];
+    private int[] remainingSlots = new int[64];
+    /** The number of slots ever used; slots below this are live or on the free list. */
+    private int slotCount;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Loads every event from the database into a new engine.
+     * @param dbManager The database manager instance.
+     * @return The populated engine.
+     * @throws SQLException if the events cannot be loaded.
+     */
+    public static MatchingEngine load(VolunteerDatabase dbManager) throws SQLException {
+        MatchingEngine engine = new MatchingEngine();
+        dbManager.forEachEvent(engine::updateEvent);
+        return engine;
+    }
+
+    /**
+     * Adds an event to the index, or replaces its skills, date and free slots if it is already indexed.
+     * @param event The event that was created or changed.
+     */
+    public void updateEvent(Event event) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByEventID.get(event.getEventID());
+            if (slot == null) {
+                slot = allocateSlot();
+                slotByEventID.put(event.getEventID(), slot);
+            }
+            eventIDs[slot] = event.getEventID();
+            eventSkills[slot] = bitsetOf(event.getRequiredSkills(), true);
+            eventDays[slot] = dayOf(event.getDate());
+            remainingSlots[slot] = event.getRemainingSlots();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Updates the number of free slots of an indexed event, for example after a registration.
+     * @param eventID The ID of the event.
+     * @param remaining The number of free slots.
+     */
+    public void setRemainingSlots(String eventID, int remaining) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByEventID.get(eventID);
+            if (slot != null) {
+                remainingSlots[slot] = remaining;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes an event from the index.
+     * @param eventID The ID of the event.
+     */
+    public void removeEvent(String eventID) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByEventID.remove(eventID);
+            if (slot == null) {
+                return;
+            }
+            eventIDs[slot] = null;
+            eventSkills[slot] = null;
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = slot;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the best open events for a volunteer, reading their registrations from the database.
+     * @param user The volunteer.
+     * @param limit The maximum number of events to return.
+     * @param dbManager The database manager instance.
+     * @return The matches, best first.
+     * @throws SQLException if the volunteer's registrations cannot be loaded.
+     */
+    public List<Match> topEventsFor(User user, int limit, VolunteerDatabase dbManager) throws SQLException {
+        return topEventsFor(user.getSkills(), dbManager.getRegisteredEventIDs(user.getUserID()), limit);
+    }
+
+    /**
+     * Finds the best open events for a volunteer with the given skills. Only the best
+     * {@code limit} candidates are kept while scanning, in a small heap.
+     * @param skills The volunteer's skills.
+     * @param registeredEventIDs The events the volunteer is already registered for; these and
+     *                           any other events on the same days are skipped.
+     * @param limit The maximum number of events to return.
+     * @return The matches, best first.
+     */
+    public List<Match> topEventsFor(Collection<String> skills, Set<String> registeredEventIDs, int limit) {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        int today = dayOf(new Date());
+        lock.readLock().lock();
+        try {
+            long[] userSkills = bitsetOf(skills, false);
+            Set<Integer> busyDays = new HashSet<>();
+            for (String eventID : registeredEventIDs) {
+                Integer slot = slotByEventID.get(eventID);
+                if (slot != null) {
+                    busyDays.add(eventDays[slot]);
+                }
+            }
+
+            PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, Match.RANKING.reversed());
+            for (int slot = 0; slot < slotCount; slot++) {
+                long[] required = eventSkills[slot];
+                if (required == null || remainingSlots[slot] <= 0 || eventDays[slot] < today
+                        || busyDays.contains(eventDays[slot])) {
+                    continue;
+                }
+                int score = 0;
+                int words = Math.min(required.length, userSkills.length);
+                for (int w = 0; w < words; w++) {
+                    score += Long.bitCount(required[w] & userSkills[w]);
+                }
+                if (score == 0) {
+                    continue;
+                }
+                Match match = new Match(eventIDs[slot], score, eventDays[slot], remainingSlots[slot]);
+                if (best.size() < limit) {
+                    best.add(match);
+                } else if (Match.RANKING.compare(match, best.peek()) < 0) {
+                    best.poll();
+                    best.add(match);
+                }
+            }
+
+            List<Match> matches = new ArrayList<>(best);
+            matches.sort(Match.RANKING);
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of events in the index.
+     * @return The indexed event count.
+     */
+    public int getEventCount() {
+        lock.readLock().lock();
+        try {
+            return slotByEventID.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of distinct skills interned so far.
+     * @return The skill count.
+     */
+    public int getSkillCount() {
+        lock.readLock().lock();
+        try {
+            return skillBits.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Builds the bitset of a list of skills. Skills seen for the first time are given a bit
+     * when intern is true; otherwise they are ignored, since no event can require them.
+     */
+    private long[] bitsetOf(Collection<String> skills, boolean intern) {
+        if (skills == null) {
+            skills = Collections.emptyList();
+        }
+        long[] bits = new long[(skillBits.size() + 63) / 64 + (intern ? 1 : 0)];
+        for (String skill : skills) {
+            String key = VolunteerDatabase.skillKey(skill);
+            if (key.isEmpty()) {
+                continue;
+            }
+            Integer bit = skillBits.get(key);
+            if (bit == null) {
+                if (!intern) {
+                    continue;
+                }
+                bit = skillBits.size();
+                skillBits.put(key, bit);
+            }
+            int word = bit >>> 6;
+            if (word >= bits.length) {
+                bits = Arrays.copyOf(bits, word + 1);
+            }
+            bits[word] |= 1L << bit;
+        }
+        return bits;
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == eventIDs.length) {
+            int capacity = slotCount * 2;
+            eventIDs = Arrays.copyOf(eventIDs, capacity);
+            eventSkills = Arrays.copyOf(eventSkills, capacity);
+            eventDays = Arrays.copyOf(eventDays, capacity);
+            remainingSlots = Arrays.copyOf(remainingSlots, capacity);
+        }
+        return slotCount++;
+    }
+
+    /**
+     * Numbers a calendar day so that later days compare greater.
+     */
+    private static int dayOf(Date date) {
+        if (date == null) {
+            return Integer.MIN_VALUE;
+        }
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(date);
+        return calendar.get(Calendar.YEAR) * 1000 + calendar.get(Calendar.DAY_OF_YEAR);
+    }
+
+    /**
+     * An event suggested to a volunteer.
+     */
+    public static class Match {
+        /** More shared skills first, then the sooner event, then by ID so the order is stable. */
+        static final Comparator<Match> RANKING = Comparator.comparingInt((Match m) -> -m.score)
+                .thenComparingInt(m -> m.day)
+                .thenComparing(m -> m.eventID);
+
+        private final String eventID;
+        private final int score;
+        private final int day;
+        private final int remainingSlots;
+
+        private Match(String eventID, int score, int day, int remainingSlots) {
+            this.eventID = eventID;
+            this.score = score;
+            this.day = day;
+            this.remainingSlots = remainingSlots;
+        }
+
+        /**
+         * Gets the ID of the suggested event.
+         * @return The event ID.
+         */
+        public String getEventID() { return eventID; }
+        /**
+         * Gets the number of the event's required skills the volunteer has.
+         * @return The shared skill count.
+         */
+        public int getScore() { return score; }
+        /**
+         * Gets the number of free slots when the match was made.
+         * @return The remaining slots.
+         */
+        public int getRemainingSlots() { return remainingSlots; }
+
+        @Override
+        public String toString() {
+            return eventID + " (" + score + " shared skills, " + remainingSlots + " slots left)";
+        }
+    }
+}
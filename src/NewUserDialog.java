@@ -1,6 +1,8 @@
 import javax.swing.*;
 import java.awt.*;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -10,7 +12,7 @@ import java.util.UUID;
  * @author Brandon Roos
  */
 public class NewUserDialog extends JDialog {
-    private JTextField firstNameField, lastNameField, emailField, passwordField;
+    private JTextField firstNameField, lastNameField, emailField, phoneField, skillsField, passwordField;
     private JComboBox<User.Role> roleComboBox;
     private VolunteerDatabase dbManager;
 
@@ -23,19 +25,23 @@ public class NewUserDialog extends JDialog {
     public NewUserDialog(JFrame parent, VolunteerDatabase dbManager) {
         super(parent, "Add New User", true);
         this.dbManager = dbManager;
-        setSize(400, 300);
-        setLayout(new GridLayout(6, 2, 10, 10));
+        setSize(400, 380);
+        setLayout(new GridLayout(8, 2, 10, 10));
         setLocationRelativeTo(parent);
 
         firstNameField = new JTextField();
         lastNameField = new JTextField();
         emailField = new JTextField();
+        phoneField = new JTextField();
+        skillsField = new JTextField();
         passwordField = new JPasswordField();
         roleComboBox = new JComboBox<>(User.Role.values());
 
         add(new JLabel("First Name:")); add(firstNameField);
         add(new JLabel("Last Name:")); add(lastNameField);
         add(new JLabel("Email:")); add(emailField);
+        add(new JLabel("Phone Number:")); add(phoneField);
+        add(new JLabel("Skills (comma-separated):")); add(skillsField);
         add(new JLabel("Password:")); add(passwordField);
         add(new JLabel("Role:")); add(roleComboBox);
 
@@ -56,6 +62,14 @@ public class NewUserDialog extends JDialog {
 
         try {
             User newUser = new User(userID, firstName, lastName, email, password, role);
+            newUser.setPhoneNumber(phoneField.getText());
+            List<String> skills = new ArrayList<>();
+            for (String skill : skillsField.getText().split(",")) {
+                if (!skill.trim().isEmpty()) {
+                    skills.add(skill.trim());
+                }
+            }
+            newUser.setSkills(skills);
             dbManager.insertUser(newUser);
             JOptionPane.showMessageDialog(this, "User added successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
             dispose();
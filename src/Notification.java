@@ -1,3 +1,4 @@
+import java.sql.SQLException;
 import java.util.Date;
 
 /**
@@ -17,6 +18,10 @@ public class Notification {
     private boolean readStatus;
     /** The type of notification (e.g., Reminder, Approval, NewOpportunity). */
     private NotificationType type;
+    /** The number of failed attempts to deliver the notification. */
+    private int deliveryAttempts;
+    /** The token of the dispatcher claim holding the notification, or null if it is not claimed. */
+    private String claimToken;
 
     /**
      * Enum to define the type of a notification.
@@ -44,6 +49,24 @@ public class Notification {
         this.type = type;
     }
 
+    /**
+     * Constructs a Notification as stored in the database.
+     *
+     * @param notificationID a unique ID for the notification.
+     * @param userID the ID of the user to whom the notification is sent.
+     * @param message the content of the notification.
+     * @param type the type of notification.
+     * @param timestamp when the notification was created.
+     * @param readStatus whether the user has read the notification.
+     * @param deliveryAttempts the number of failed delivery attempts so far.
+     */
+    public Notification(String notificationID, String userID, String message, NotificationType type, Date timestamp, boolean readStatus, int deliveryAttempts) {
+        this(notificationID, userID, message, type);
+        this.timestamp = timestamp;
+        this.readStatus = readStatus;
+        this.deliveryAttempts = deliveryAttempts;
+    }
+
     /**
      * Sends the notification.
      */
@@ -51,6 +74,17 @@ public class Notification {
         System.out.println("Sending notification to user " + this.userID + ": " + this.message);
     }
 
+    /**
+     * Queues the notification in the database outbox. It is delivered in the background
+     * by a {@link NotificationDispatcher}, so the caller does not wait for delivery.
+     *
+     * @param dbManager the database manager instance.
+     * @throws SQLException if the notification cannot be stored.
+     */
+    public void sendNotification(VolunteerDatabase dbManager) throws SQLException {
+        dbManager.insertNotification(this);
+    }
+
     /**
      * Marks the notification as read.
      */
@@ -59,6 +93,17 @@ public class Notification {
         System.out.println("Notification " + this.notificationID + " marked as read.");
     }
 
+    /**
+     * Marks the notification as read in the database and updates the user's unread count.
+     *
+     * @param dbManager the database manager instance.
+     * @throws SQLException if the notification cannot be updated.
+     */
+    public void markAsRead(VolunteerDatabase dbManager) throws SQLException {
+        dbManager.markNotificationRead(this.userID, this.notificationID);
+        this.readStatus = true;
+    }
+
     /**
      * Displays the notification.
      */
@@ -101,4 +146,19 @@ public class Notification {
      * @return The notification type.
      */
     public NotificationType getType() { return type; }
+    /**
+     * Gets the number of failed attempts to deliver the notification.
+     * @return The failed delivery attempt count.
+     */
+    public int getDeliveryAttempts() { return deliveryAttempts; }
+    /**
+     * Gets the token of the dispatcher claim holding the notification.
+     * @return The claim token, or null if the notification was not claimed.
+     */
+    public String getClaimToken() { return claimToken; }
+    /**
+     * Sets the token of the dispatcher claim holding the notification.
+     * @param claimToken The claim token.
+     */
+    void setClaimToken(String claimToken) { this.claimToken = claimToken; }
 }
\ No newline at end of file
@@ -0,0 +1,238 @@
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers queued notifications from the database outbox in the background.
+ * A single daemon thread claims a batch of due notifications, hands each to the
+ * {@link NotificationSink}, and marks the delivered ones in one batched update. A failed
+ * delivery is retried with exponential backoff and given up on after {@link #MAX_ATTEMPTS}
+ * attempts. Because every notification is stored before it is sent, nothing is lost if the
+ * application stops mid-batch: claims older than {@link #CLAIM_TIMEOUT_MILLIS} are released
+ * and delivered again.
+ * @author Brandon Roos
+ */
+public class NotificationDispatcher {
+    /** The number of delivery attempts before a notification is marked as failed. */
+    public static final int MAX_ATTEMPTS = 6;
+    /** The delay before the first retry; doubled for every later attempt. */
+    private static final long INITIAL_BACKOFF_MILLIS = 1_000;
+    private static final long MAX_BACKOFF_MILLIS = 10 * 60 * 1_000;
+    /** How long a claim is held before it is assumed abandoned. */
+    private static final long CLAIM_TIMEOUT_MILLIS = 5 * 60 * 1_000;
+
+    /** The database manager instance. */
+    private final VolunteerDatabase dbManager;
+    /** The channel notifications are delivered through. */
+    private final NotificationSink sink;
+    /** The maximum number of notifications claimed at once. */
+    private final int batchSize;
+    /** How long the dispatcher sleeps when the outbox is empty. */
+    private final long pollIntervalMillis;
+
+    private final Object lock = new Object();
+    private Thread worker;
+    private volatile boolean running;
+
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong totalLatencyMillis = new AtomicLong();
+    private final AtomicLong maxLatencyMillis = new AtomicLong();
+
+    /**
+     * Constructs a new NotificationDispatcher. Call {@link #start()} to begin delivering.
+     *
+     * @param dbManager the database manager to read the outbox from.
+     * @param sink the channel to deliver notifications through.
+     * @param batchSize the maximum number of notifications claimed at once.
+     * @param pollIntervalMillis how long to wait between polls when the outbox is empty.
+     */
+    public NotificationDispatcher(VolunteerDatabase dbManager, NotificationSink sink, int batchSize, long pollIntervalMillis) {
+        this.dbManager = dbManager;
+        this.sink = sink;
+        this.batchSize = Math.max(1, batchSize);
+        this.pollIntervalMillis = pollIntervalMillis;
+    }
+
+    /**
+     * Starts the background delivery thread. Does nothing if it is already running.
+     */
+    public void start() {
+        synchronized (lock) {
+            if (running) {
+                return;
+            }
+            running = true;
+            worker = new Thread(this::run, "notification-dispatcher");
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    /**
+     * Stops the delivery thread after its current batch and waits for it to finish.
+     * Notifications still in the outbox are delivered the next time a dispatcher starts.
+     */
+    public void stop() {
+        Thread stopping;
+        synchronized (lock) {
+            running = false;
+            stopping = worker;
+            worker = null;
+            lock.notifyAll();
+        }
+        if (stopping != null) {
+            try {
+                stopping.join(pollIntervalMillis + 5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        System.out.println("Notification dispatcher stopped: " + getStatistics());
+    }
+
+    /**
+     * Wakes the delivery thread so newly queued notifications are sent without waiting
+     * for the next poll.
+     */
+    public void wakeUp() {
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Claims and delivers one batch of due notifications on the calling thread.
+     * @return The number of notifications claimed.
+     * @throws SQLException if the outbox cannot be read or updated.
+     */
+    public int dispatchBatch() throws SQLException {
+        List<Notification> batch = dbManager.claimNotifications(batchSize);
+        List<Notification> delivered = new ArrayList<>(batch.size());
+        for (Notification notification : batch) {
+            try {
+                sink.deliver(notification);
+                delivered.add(notification);
+                recordLatency(notification);
+            } catch (Exception e) {
+                recordFailure(notification, e);
+            }
+        }
+        dbManager.markNotificationsDelivered(delivered);
+        return batch.size();
+    }
+
+    /**
+     * Gets the number of notifications waiting in the outbox.
+     * @return The queue depth, or -1 if it cannot be read.
+     */
+    public int getQueueDepth() {
+        try {
+            return dbManager.getNotificationQueueDepth();
+        } catch (SQLException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Gets the number of notifications delivered by this dispatcher.
+     * @return The delivered count.
+     */
+    public long getDeliveredCount() { return delivered.get(); }
+    /**
+     * Gets the number of failed attempts that were scheduled for a retry.
+     * @return The retry count.
+     */
+    public long getRetryCount() { return retried.get(); }
+    /**
+     * Gets the number of notifications given up on after {@link #MAX_ATTEMPTS} attempts.
+     * @return The failed count.
+     */
+    public long getFailedCount() { return failed.get(); }
+
+    /**
+     * Gets the mean time from a notification being created to it being delivered.
+     * @return The average latency in milliseconds.
+     */
+    public double getAverageLatencyMillis() {
+        long count = delivered.get();
+        return count == 0 ? 0.0 : (double) totalLatencyMillis.get() / count;
+    }
+
+    /**
+     * Gets the longest time from a notification being created to it being delivered.
+     * @return The maximum latency in milliseconds.
+     */
+    public long getMaxLatencyMillis() { return maxLatencyMillis.get(); }
+
+    /**
+     * Summarizes the dispatcher's counters and the current queue depth.
+     * @return A one-line description of the statistics.
+     */
+    public String getStatistics() {
+        return String.format("queue=%d, delivered=%d, retried=%d, failed=%d, avgLatency=%.0f ms, maxLatency=%d ms",
+                getQueueDepth(), getDeliveredCount(), getRetryCount(), getFailedCount(),
+                getAverageLatencyMillis(), getMaxLatencyMillis());
+    }
+
+    private void run() {
+        while (running) {
+            int claimed = 0;
+            try {
+                dbManager.releaseStaleNotificationClaims(new Date(System.currentTimeMillis() - CLAIM_TIMEOUT_MILLIS));
+                claimed = dispatchBatch();
+            } catch (SQLException e) {
+                System.err.println("Error dispatching notifications: " + e.getMessage());
+            }
+            // Keep draining while batches come back full; otherwise wait for the next poll
+            if (claimed < batchSize) {
+                synchronized (lock) {
+                    if (!running) {
+                        break;
+                    }
+                    try {
+                        lock.wait(pollIntervalMillis);
+                    } catch (InterruptedException e) {
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private void recordFailure(Notification notification, Exception cause) {
+        int attempts = notification.getDeliveryAttempts() + 1;
+        Date nextAttempt = null;
+        if (attempts < MAX_ATTEMPTS) {
+            long backoff = Math.min(MAX_BACKOFF_MILLIS, INITIAL_BACKOFF_MILLIS << (attempts - 1));
+            nextAttempt = new Date(System.currentTimeMillis() + backoff);
+        }
+        try {
+            if (!dbManager.markNotificationFailed(notification, cause.toString(), nextAttempt)) {
+                // The claim timed out and another dispatcher owns the notification now
+                return;
+            }
+        } catch (SQLException e) {
+            // The claim is released after CLAIM_TIMEOUT_MILLIS and the notification retried then
+            System.err.println("Error recording failed notification " + notification.getNotificationID() + ": " + e.getMessage());
+            return;
+        }
+        if (nextAttempt == null) {
+            failed.incrementAndGet();
+            System.err.println("Giving up on notification " + notification.getNotificationID()
+                    + " after " + attempts + " attempts: " + cause);
+        } else {
+            retried.incrementAndGet();
+        }
+    }
+
+    private void recordLatency(Notification notification) {
+        long latency = System.currentTimeMillis() - notification.getTimestamp().getTime();
+        delivered.incrementAndGet();
+        totalLatencyMillis.addAndGet(latency);
+        maxLatencyMillis.accumulateAndGet(latency, Math::max);
+    }
+}
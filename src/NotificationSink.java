@@ -0,0 +1,17 @@
+import java.io.IOException;
+
+/**
+ * A channel that notifications are delivered through, such as email, SMS or a log file.
+ * Implementations are called from the {@link NotificationDispatcher} thread, one
+ * notification at a time.
+ * @author Brandon Roos
+ */
+public interface NotificationSink {
+
+    /**
+     * Delivers one notification.
+     * @param notification The notification to deliver.
+     * @throws IOException if delivery fails; the dispatcher will retry later.
+     */
+    void deliver(Notification notification) throws IOException;
+}
@@ -1,4 +1,7 @@
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -50,6 +53,17 @@ public class Organization {
         this.postedEvents = new ArrayList<>();
     }
 
+    /**
+     * Constructs a copy of another Organization with its own list of posted events.
+     *
+     * @param other the organization to copy.
+     */
+    public Organization(Organization other) {
+        this(other.orgID, other.orgName, other.contactPersonName, other.contactEmail, other.contactPhone,
+                other.password, other.description, other.address);
+        this.postedEvents.addAll(other.postedEvents);
+    }
+
     /**
      * Creates and posts a new event.
      *
@@ -60,6 +74,21 @@ public class Organization {
         System.out.println("Event '" + event.getTitle() + "' created by " + this.orgName + ".");
     }
 
+    /**
+     * Creates and posts a new event, saving it to the database and notifying every
+     * volunteer with one of its required skills.
+     *
+     * @param event the Event object to be created and posted.
+     * @param dbManager the database manager instance.
+     * @return The number of volunteers notified.
+     * @throws SQLException if the event cannot be saved.
+     */
+    public int createEvent(Event event, VolunteerDatabase dbManager) throws SQLException {
+        int notified = dbManager.publishEvent(event);
+        createEvent(event);
+        return notified;
+    }
+
     /**
      * Approves a volunteer's submitted hours.
      *
@@ -70,6 +99,53 @@ public class Organization {
         System.out.println("Hours for record " + record.getRecordID() + " have been approved by " + this.orgName + ".");
     }
 
+    /**
+     * Approves many submitted records in the database in one transaction. Records for other
+     * organizations' events, and records that are no longer pending, are skipped.
+     *
+     * @param recordIDs the IDs of the records to approve.
+     * @param dbManager the database manager instance.
+     * @return The number of records approved and skipped, and the hours approved.
+     * @throws SQLException if the records cannot be updated; none are changed.
+     */
+    public BulkStatusResult approveHours(Collection<String> recordIDs, VolunteerDatabase dbManager) throws SQLException {
+        BulkStatusResult result = dbManager.updateRecordStatuses(recordIDs, this.orgID, VolunteerRecord.Status.APPROVED, this.orgID);
+        System.out.println(this.orgName + " " + result);
+        return result;
+    }
+
+    /**
+     * Rejects many submitted records in the database in one transaction. Records for other
+     * organizations' events, and records that are no longer pending, are skipped.
+     *
+     * @param recordIDs the IDs of the records to reject.
+     * @param dbManager the database manager instance.
+     * @return The number of records rejected and skipped.
+     * @throws SQLException if the records cannot be updated; none are changed.
+     */
+    public BulkStatusResult rejectHours(Collection<String> recordIDs, VolunteerDatabase dbManager) throws SQLException {
+        BulkStatusResult result = dbManager.updateRecordStatuses(recordIDs, this.orgID, VolunteerRecord.Status.REJECTED, this.orgID);
+        System.out.println(this.orgName + " " + result);
+        return result;
+    }
+
+    /**
+     * Approves every pending record for one of this organization's events, or for all of them,
+     * submitted within a date range, in one transaction.
+     *
+     * @param eventID the ID of the event, or null for all of the organization's events.
+     * @param from the earliest submission date, or null for no lower bound.
+     * @param to the latest submission date, or null for no upper bound.
+     * @param dbManager the database manager instance.
+     * @return The number of records approved and the hours approved.
+     * @throws SQLException if the records cannot be updated; none are changed.
+     */
+    public BulkStatusResult approvePendingHours(String eventID, Date from, Date to, VolunteerDatabase dbManager) throws SQLException {
+        BulkStatusResult result = dbManager.updatePendingRecordStatuses(this.orgID, eventID, from, to, VolunteerRecord.Status.APPROVED, this.orgID);
+        System.out.println(this.orgName + " " + result);
+        return result;
+    }
+
     /**
      * Manages the posted opportunities (e.g., editing, deleting).
      */
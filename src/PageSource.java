@@ -0,0 +1,45 @@
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * A read-only view of a table that can be fetched one page at a time, in primary key order.
+ * Instances are provided by {@link VolunteerDatabase} and used by {@link PagedTableModel}
+ * to show large tables without loading every row.
+ * @param <T> the type of entity stored in the table.
+ * @author Brandon Roos
+ */
+public interface PageSource<T> {
+    /**
+     * Counts the rows in the table.
+     * @return The number of rows.
+     * @throws SQLException if a database access error occurs.
+     */
+    int count() throws SQLException;
+
+    /**
+     * Fetches the rows that follow the given key. This is the fast path when the previous
+     * page is already known, since the database can seek straight to the key.
+     * @param afterKey The primary key to start after, or null for the first page.
+     * @param limit The maximum number of rows to return.
+     * @return Up to limit rows in key order.
+     * @throws SQLException if a database access error occurs.
+     */
+    List<T> pageAfter(String afterKey, int limit) throws SQLException;
+
+    /**
+     * Fetches the rows starting at a row position. Used when jumping to a page
+     * whose predecessor has not been loaded.
+     * @param offset The zero-based position of the first row.
+     * @param limit The maximum number of rows to return.
+     * @return Up to limit rows in key order.
+     * @throws SQLException if a database access error occurs.
+     */
+    List<T> pageAt(int offset, int limit) throws SQLException;
+
+    /**
+     * Gets the primary key of a row, used to continue paging after it.
+     * @param row A row returned by this source.
+     * @return The row's primary key.
+     */
+    String keyOf(T row);
+}
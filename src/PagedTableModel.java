@@ -0,0 +1,296 @@
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * A table model that shows a database table without loading all of it.
+ * The row count comes from a COUNT query, and rows are fetched a page at a time as the
+ * table asks for them. A small LRU cache keeps the pages around the visible window, so
+ * a table opens instantly and uses the same memory regardless of how many rows it has.
+ * <p>
+ * By default pages are fetched on the calling thread. After {@link #setBackgroundLoader(Executor)}
+ * is called, missing pages are fetched on that executor instead; their cells are blank
+ * until the page arrives and the rows are repainted. All other methods must be called
+ * on the Event Dispatch Thread.
+ * @param <T> the type of entity shown in each row.
+ * @author Brandon Roos
+ */
+public class PagedTableModel<T> extends AbstractTableModel {
+    /** The default number of rows fetched per page. */
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    /** The default number of pages kept in memory. */
+    private static final int DEFAULT_MAX_CACHED_PAGES = 20;
+
+    private final String[] columnNames;
+    private final PageSource<T> source;
+    private final Function<T, Object[]> rowRenderer;
+    private final int pageSize;
+    private final int maxCachedPages;
+    /** Loaded pages by page number, in least-recently-used order. */
+    private final LinkedHashMap<Integer, Page> pages;
+    private int rowCount;
+    /** Runs page fetches off the Event Dispatch Thread; null to fetch synchronously. */
+    private Executor backgroundLoader;
+    /** Pages currently being fetched in the background. */
+    private final Set<Integer> loadingPages = new HashSet<>();
+    /** Pages whose background fetch failed; not retried until the next refresh. */
+    private final Set<Integer> failedPages = new HashSet<>();
+    /** Incremented whenever cached pages are discarded, so stale background results are dropped. */
+    private int generation;
+
+    /**
+     * Constructs a new PagedTableModel with the default page size and cache size.
+     * Call {@link #refresh()} to load the row count.
+     *
+     * @param columnNames the column headers.
+     * @param source the table to page through.
+     * @param rowRenderer converts an entity into the values of one table row.
+     */
+    public PagedTableModel(String[] columnNames, PageSource<T> source, Function<T, Object[]> rowRenderer) {
+        this(columnNames, source, rowRenderer, DEFAULT_PAGE_SIZE, DEFAULT_MAX_CACHED_PAGES);
+    }
+
+    /**
+     * Constructs a new PagedTableModel.
+     * Call {@link #refresh()} to load the row count.
+     *
+     * @param columnNames the column headers.
+     * @param source the table to page through.
+     * @param rowRenderer converts an entity into the values of one table row.
+     * @param pageSize the number of rows fetched per page.
+     * @param maxCachedPages the number of pages kept in memory.
+     */
+    public PagedTableModel(String[] columnNames, PageSource<T> source, Function<T, Object[]> rowRenderer, int pageSize, int maxCachedPages) {
+        this.columnNames = columnNames.clone();
+        this.source = source;
+        this.rowRenderer = rowRenderer;
+        this.pageSize = pageSize;
+        this.maxCachedPages = maxCachedPages;
+        this.pages = new LinkedHashMap<Integer, Page>(maxCachedPages * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Page> eldest) {
+                return size() > PagedTableModel.this.maxCachedPages;
+            }
+        };
+    }
+
+    /**
+     * Re-counts the rows and discards all cached pages, so the table shows current data.
+     * @throws SQLException if the row count cannot be read.
+     */
+    public void refresh() throws SQLException {
+        setRowCount(source.count());
+    }
+
+    /**
+     * Sets the number of rows, discarding all cached pages. Used when the count
+     * has been read elsewhere, for example by a background loader.
+     * @param rowCount The number of rows in the table.
+     */
+    public void setRowCount(int rowCount) {
+        this.rowCount = rowCount;
+        discardPages();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Fetches missing pages on the given executor instead of the Event Dispatch Thread.
+     * @param executor The executor that runs page fetches, or null to fetch synchronously.
+     */
+    public void setBackgroundLoader(Executor executor) {
+        this.backgroundLoader = executor;
+    }
+
+    /**
+     * Stores a page fetched by the caller and repaints its rows.
+     * @param pageNumber The zero-based page number.
+     * @param rows The rows of the page, in key order.
+     */
+    public void putPage(int pageNumber, List<T> rows) {
+        pages.put(pageNumber, render(rows));
+        failedPages.remove(pageNumber);
+        fireRowsUpdated(pageNumber);
+    }
+
+    /**
+     * Gets the number of rows per page.
+     * @return The page size.
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Gets the table this model pages through.
+     * @return The page source.
+     */
+    public PageSource<T> getSource() {
+        return source;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        Object[] row = getRow(rowIndex);
+        return row == null ? null : row[columnIndex];
+    }
+
+    /**
+     * Returns the rendered values for a row, loading its page if needed.
+     * @param rowIndex The row to fetch.
+     * @return The row values, or null if the row no longer exists or could not be loaded.
+     */
+    private Object[] getRow(int rowIndex) {
+        int pageNumber = rowIndex / pageSize;
+        Page page = pages.get(pageNumber);
+        if (page == null) {
+            if (backgroundLoader != null) {
+                requestPage(pageNumber);
+                return null;
+            }
+            page = loadPage(pageNumber);
+            if (page == null) {
+                return null;
+            }
+            pages.put(pageNumber, page);
+        }
+        int offset = rowIndex % pageSize;
+        return offset < page.rows.length ? page.rows[offset] : null;
+    }
+
+    /**
+     * Loads a page on the calling thread.
+     */
+    private Page loadPage(int pageNumber) {
+        try {
+            return render(fetch(pageNumber, previousKey(pageNumber)));
+        } catch (SQLException e) {
+            logLoadFailure(pageNumber, e);
+            return null;
+        }
+    }
+
+    /**
+     * Schedules a background fetch of a page unless one is already running or has failed.
+     */
+    private void requestPage(int pageNumber) {
+        if (failedPages.contains(pageNumber) || !loadingPages.add(pageNumber)) {
+            return;
+        }
+        String afterKey = previousKey(pageNumber);
+        int requestGeneration = generation;
+        try {
+            backgroundLoader.execute(() -> {
+                List<T> rows = null;
+                SQLException failure = null;
+                try {
+                    rows = fetch(pageNumber, afterKey);
+                } catch (SQLException e) {
+                    failure = e;
+                }
+                List<T> loaded = rows;
+                SQLException error = failure;
+                SwingUtilities.invokeLater(() -> {
+                    if (requestGeneration != generation) {
+                        return;
+                    }
+                    loadingPages.remove(pageNumber);
+                    if (error != null) {
+                        failedPages.add(pageNumber);
+                        logLoadFailure(pageNumber, error);
+                    } else {
+                        putPage(pageNumber, loaded);
+                    }
+                });
+            });
+        } catch (RejectedExecutionException e) {
+            // The loader has been shut down, e.g. because the window is closing.
+            loadingPages.remove(pageNumber);
+        }
+    }
+
+    /**
+     * Returns the last key of the previous page if it is cached and full, so the next page can be read by key.
+     */
+    private String previousKey(int pageNumber) {
+        if (pageNumber == 0) {
+            return null;
+        }
+        Page previous = pages.get(pageNumber - 1);
+        return previous != null && previous.rows.length == pageSize ? previous.lastKey : null;
+    }
+
+    /**
+     * Reads a page from the source, seeking by key when the previous page's last key
+     * is known and by offset otherwise. Safe to call from any thread.
+     */
+    private List<T> fetch(int pageNumber, String afterKey) throws SQLException {
+        if (pageNumber == 0 || afterKey != null) {
+            return source.pageAfter(afterKey, pageSize);
+        }
+        return source.pageAt(pageNumber * pageSize, pageSize);
+    }
+
+    private Page render(List<T> rows) {
+        Object[][] rendered = new Object[rows.size()][];
+        for (int i = 0; i < rendered.length; i++) {
+            rendered[i] = rowRenderer.apply(rows.get(i));
+        }
+        String lastKey = rows.isEmpty() ? null : source.keyOf(rows.get(rows.size() - 1));
+        return new Page(rendered, lastKey);
+    }
+
+    private void discardPages() {
+        pages.clear();
+        loadingPages.clear();
+        failedPages.clear();
+        generation++;
+    }
+
+    private void fireRowsUpdated(int pageNumber) {
+        int first = pageNumber * pageSize;
+        int last = Math.min(rowCount, first + pageSize) - 1;
+        if (first <= last) {
+            fireTableRowsUpdated(first, last);
+        }
+    }
+
+    private void logLoadFailure(int pageNumber, SQLException e) {
+        System.err.println("Error loading rows " + pageNumber * pageSize + "-" + ((pageNumber + 1) * pageSize - 1) + ": " + e.getMessage());
+    }
+
+    /**
+     * One page of rendered rows and the key of its last row.
+     */
+    private static final class Page {
+        private final Object[][] rows;
+        private final String lastKey;
+
+        private Page(Object[][] rows, String lastKey) {
+            this.rows = rows;
+            this.lastKey = lastKey;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Measures the throughput of the streaming PDF report writer without a database.
+ * Usage: {@code java PdfBenchmark [records] [runs]}; defaults to 200,000 records and 3 runs.
+ * Prints pages per second, records per second and file size for each run.
+ * @author Brandon Roos
+ */
+public class PdfBenchmark {
+
+    /**
+     * Runs the benchmark.
+     * @param args The number of records and the number of timed runs.
+     * @throws IOException if the report cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        int recordCount = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        List<VolunteerRecord> records = syntheticRecords(recordCount);
+        Report report = new Report("benchmark", "PDF", "benchmark");
+        Path file = Files.createTempFile("volunteer-report", ".pdf");
+        try {
+            // Warm up the JIT before timing
+            report.generatePDF(records.subList(0, Math.min(recordCount, 20_000)), file);
+            for (int run = 1; run <= runs; run++) {
+                long start = System.nanoTime();
+                int pages = report.generatePDF(records, file);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("Run %d: %d records, %d pages in %.2f s = %.0f pages/s, %.0f records/s, %.1f MB%n",
+                        run, recordCount, pages, seconds, pages / seconds, recordCount / seconds, Files.size(file) / 1e6);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Builds a list view that creates each record when it is read, so the benchmark itself
+     * does not hold the records in memory.
+     */
+    private static List<VolunteerRecord> syntheticRecords(int count) {
+        Date date = new Date();
+        VolunteerRecord.Status[] statuses = VolunteerRecord.Status.values();
+        return new AbstractList<VolunteerRecord>() {
+            @Override
+            public VolunteerRecord get(int i) {
+                return new VolunteerRecord("record-" + i, "user-" + (i % 5_000), "event-" + (i % 300),
+                        1.0 + (i % 16) * 0.25, date, statuses[i % statuses.length], null);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+}
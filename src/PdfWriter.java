@@ -0,0 +1,246 @@
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes a simple text-only PDF document line by line, without any third-party library.
+ * Each page is written to the output as soon as it fills, so memory use depends on the size
+ * of one page rather than the whole document; only the byte offset of each object is kept,
+ * for the cross-reference table written at the end. All pages share a single font object
+ * for the standard Courier font, which every PDF reader provides, so nothing needs embedding
+ * and fixed-width columns line up.
+ * @author Brandon Roos
+ */
+public class PdfWriter implements Closeable {
+    /** US Letter page size, in points. */
+    private static final int PAGE_WIDTH = 612;
+    private static final int PAGE_HEIGHT = 792;
+    private static final int MARGIN = 50;
+    private static final int FONT_SIZE = 7;
+    private static final int LEADING = 10;
+    /** The number of body lines that fit below the page heading. */
+    private static final int LINES_PER_PAGE = (PAGE_HEIGHT - 2 * MARGIN) / LEADING - 2;
+
+    private static final int CATALOG_ID = 1;
+    private static final int PAGES_ID = 2;
+    private static final int FONT_ID = 3;
+
+    private final CountingOutputStream out;
+    private final String title;
+    /** The byte offset of each object, indexed by object number. */
+    private long[] offsets = new long[64];
+    private int nextObjectID = FONT_ID + 1;
+    /** The object number of each page, in order. */
+    private int[] pageIDs = new int[16];
+    private int pageCount;
+    /** The content stream of the page being filled. */
+    private final StringBuilder content = new StringBuilder(8 * 1024);
+    private int linesOnPage;
+    private boolean closed;
+
+    /**
+     * Starts a new PDF document.
+     *
+     * @param out the stream to write the document to; it is closed with this writer.
+     * @param title the title printed at the top of every page.
+     * @throws IOException if the document header cannot be written.
+     */
+    public PdfWriter(OutputStream out, String title) throws IOException {
+        this.out = new CountingOutputStream(new BufferedOutputStream(out, 64 * 1024));
+        this.title = title;
+        write("%PDF-1.4\n%\u00e2\u00e3\u00cf\u00d3\n");
+        beginObject(FONT_ID);
+        write("<< /Type /Font /Subtype /Type1 /BaseFont /Courier /Encoding /WinAnsiEncoding >>\n");
+        endObject();
+    }
+
+    /**
+     * Adds a line of text, starting a new page when the current one is full.
+     * Characters outside Latin-1 are printed as '?'.
+     * @param text The line to add.
+     * @throws IOException if a finished page cannot be written.
+     */
+    public void addLine(String text) throws IOException {
+        if (linesOnPage == LINES_PER_PAGE) {
+            finishPage();
+        }
+        if (linesOnPage == 0) {
+            startPage();
+        }
+        content.append('(');
+        appendEscaped(text);
+        content.append(") Tj T*\n");
+        linesOnPage++;
+    }
+
+    /**
+     * Gets the number of pages written so far, including the one being filled.
+     * @return The page count.
+     */
+    public int getPageCount() {
+        return pageCount + (linesOnPage > 0 ? 1 : 0);
+    }
+
+    /**
+     * Writes the last page, the page tree and the cross-reference table, and closes the stream.
+     * @throws IOException if the document cannot be completed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (linesOnPage > 0 || pageCount == 0) {
+                if (linesOnPage == 0) {
+                    startPage();
+                }
+                finishPage();
+            }
+
+            beginObject(PAGES_ID);
+            StringBuilder pages = new StringBuilder(32 + pageCount * 8);
+            pages.append("<< /Type /Pages /Count ").append(pageCount).append(" /Kids [");
+            for (int i = 0; i < pageCount; i++) {
+                pages.append(pageIDs[i]).append(" 0 R ");
+            }
+            pages.append("] >>\n");
+            write(pages.toString());
+            endObject();
+
+            beginObject(CATALOG_ID);
+            write("<< /Type /Catalog /Pages " + PAGES_ID + " 0 R >>\n");
+            endObject();
+
+            int infoID = nextObjectID++;
+            beginObject(infoID);
+            content.setLength(0);
+            content.append("<< /Title (");
+            appendEscaped(title);
+            content.append(") /Producer (Volunteer Hub) >>\n");
+            write(content.toString());
+            endObject();
+
+            long xref = out.count;
+            StringBuilder table = new StringBuilder(nextObjectID * 20 + 64);
+            table.append("xref\n0 ").append(nextObjectID).append('\n');
+            table.append("0000000000 65535 f \n");
+            for (int id = 1; id < nextObjectID; id++) {
+                table.append(String.format("%010d 00000 n \n", offsets[id]));
+            }
+            table.append("trailer\n<< /Size ").append(nextObjectID)
+                    .append(" /Root ").append(CATALOG_ID).append(" 0 R /Info ").append(infoID).append(" 0 R >>\n")
+                    .append("startxref\n").append(xref).append("\n%%EOF\n");
+            write(table.toString());
+        } finally {
+            out.close();
+        }
+    }
+
+    private void startPage() {
+        content.setLength(0);
+        content.append("BT\n/F1 ").append(FONT_SIZE + 2).append(" Tf\n")
+                .append(MARGIN).append(' ').append(PAGE_HEIGHT - MARGIN).append(" Td\n(");
+        appendEscaped(title);
+        content.append(" - page ").append(pageCount + 1).append(") Tj\n")
+                .append("/F1 ").append(FONT_SIZE).append(" Tf\n")
+                .append(LEADING).append(" TL\nT* T*\n");
+    }
+
+    private void finishPage() throws IOException {
+        content.append("ET\n");
+        byte[] stream = content.toString().getBytes(StandardCharsets.ISO_8859_1);
+
+        int contentID = nextObjectID++;
+        beginObject(contentID);
+        write("<< /Length " + stream.length + " >>\nstream\n");
+        out.write(stream);
+        write("\nendstream\n");
+        endObject();
+
+        int pageID = nextObjectID++;
+        beginObject(pageID);
+        write("<< /Type /Page /Parent " + PAGES_ID + " 0 R /MediaBox [0 0 " + PAGE_WIDTH + " " + PAGE_HEIGHT + "]"
+                + " /Resources << /Font << /F1 " + FONT_ID + " 0 R >> >> /Contents " + contentID + " 0 R >>\n");
+        endObject();
+
+        if (pageCount == pageIDs.length) {
+            pageIDs = Arrays.copyOf(pageIDs, pageCount * 2);
+        }
+        pageIDs[pageCount++] = pageID;
+        content.setLength(0);
+        linesOnPage = 0;
+    }
+
+    private void appendEscaped(String text) {
+        if (text == null) {
+            return;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '(' || c == ')' || c == '\\') {
+                content.append('\\').append(c);
+            } else if (c < 32) {
+                content.append(' ');
+            } else if (c > 255) {
+                content.append('?');
+            } else {
+                content.append(c);
+            }
+        }
+    }
+
+    private void beginObject(int id) throws IOException {
+        if (id >= offsets.length) {
+            offsets = Arrays.copyOf(offsets, Math.max(id + 1, offsets.length * 2));
+        }
+        offsets[id] = out.count;
+        write(id + " 0 obj\n");
+    }
+
+    private void endObject() throws IOException {
+        write("endobj\n");
+    }
+
+    private void write(String text) throws IOException {
+        out.write(text.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * Tracks the number of bytes written, which gives each object's offset for the xref table.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+        private final OutputStream delegate;
+        private long count;
+
+        private CountingOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,289 @@
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Finds events near a ZIP code, in memory.
+ * Each event is placed at the centroid of its location's ZIP code and filed in a grid of
+ * cells {@link #CELL_DEGREES} degrees on a side. A search only visits the cells overlapping
+ * the bounding box of the search circle, so events far outside the radius are never examined,
+ * and the events it returns are then read from the database (through the event cache) by ID.
+ * When the box spans more cells than the index has non-empty cells, as it does for a very
+ * large radius, the non-empty cells are scanned instead.
+ * Events whose ZIP code is not in the {@link ZipCentroids} table cannot be placed and are
+ * left out of the index. The index is updated one event at a time as events change.
+ * @author Brandon Roos
+ */
+public class ProximityIndex {
+    /** The size of a grid cell: about ten miles north to south. */
+    private static final double CELL_DEGREES = 0.15;
+    private static final double EARTH_RADIUS_MILES = 3958.8;
+    private static final double MILES_PER_DEGREE_LATITUDE = 69.0;
+
+    /** The ZIP code centroids used to place events and search origins. */
+    private final ZipCentroids centroids;
+    /** The events in each grid cell, keyed by {@link #cellKey(int, int)}. */
+    private final Map<Long, List<Entry>> cells = new HashMap<>();
+    /** The entry of each indexed event. */
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Constructs an empty ProximityIndex.
+     *
+     * @param centroids the ZIP code centroids used to place events.
+     */
+    public ProximityIndex(ZipCentroids centroids) {
+        this.centroids = centroids;
+    }
+
+    /**
+     * Loads every event from the database into a new index.
+     * @param dbManager The database manager instance.
+     * @param centroids The ZIP code centroids used to place events.
+     * @return The populated index.
+     * @throws SQLException if the events cannot be loaded.
+     */
+    public static ProximityIndex load(VolunteerDatabase dbManager, ZipCentroids centroids) throws SQLException {
+        ProximityIndex index = new ProximityIndex(centroids);
+        dbManager.forEachEvent(index::updateEvent);
+        return index;
+    }
+
+    /**
+     * Adds an event to the index, or moves it if its location or date changed.
+     * @param event The event that was created or changed.
+     * @return true if the event was placed, false if its ZIP code is unknown.
+     */
+    public boolean updateEvent(Event event) {
+        String zip = event.getLocation() == null ? null : event.getLocation().getZipCode();
+        double[] point = centroids.locate(zip);
+        lock.writeLock().lock();
+        try {
+            removeEntry(event.getEventID());
+            if (point == null) {
+                return false;
+            }
+            long when = event.getDate() == null ? Long.MIN_VALUE : event.getDate().getTime();
+            Entry entry = new Entry(event.getEventID(), point[0], point[1], when);
+            entries.put(entry.eventID, entry);
+            cells.computeIfAbsent(cellKey(cellOf(point[0]), cellOf(point[1])), k -> new ArrayList<>()).add(entry);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes an event from the index.
+     * @param eventID The ID of the event.
+     */
+    public void removeEvent(String eventID) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(eventID);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the indexed events within a distance of a ZIP code's centroid, nearest first.
+     * @param zipCode The ZIP code to search from.
+     * @param radiusMiles The search radius in miles.
+     * @param from The earliest event date, or null for no lower bound.
+     * @param to The latest event date, or null for no upper bound.
+     * @return The nearby events with their distances, nearest first.
+     * @throws IllegalArgumentException if the ZIP code is unknown or the radius is negative or not finite.
+     */
+    public List<Nearby> findNear(String zipCode, double radiusMiles, Date from, Date to) {
+        if (!(radiusMiles >= 0) || Double.isInfinite(radiusMiles)) {
+            throw new IllegalArgumentException("Invalid search radius " + radiusMiles + ".");
+        }
+        double[] origin = centroids.locate(zipCode);
+        if (origin == null) {
+            throw new IllegalArgumentException("Unknown ZIP code " + zipCode + ".");
+        }
+        long earliest = from == null ? Long.MIN_VALUE : from.getTime();
+        long latest = to == null ? Long.MAX_VALUE : to.getTime();
+
+        // Bounding box of the search circle, widened in longitude as meridians converge
+        double latSpan = radiusMiles / MILES_PER_DEGREE_LATITUDE;
+        double cosLat = Math.max(0.01, Math.cos(Math.toRadians(origin[0])));
+        double lngSpan = latSpan / cosLat;
+        double south = origin[0] - latSpan;
+        double north = origin[0] + latSpan;
+        // A circle that reaches a pole or crosses the antimeridian covers every longitude
+        boolean allLongitudes = south <= -90 || north >= 90
+                || origin[1] - lngSpan < -180 || origin[1] + lngSpan > 180;
+        int minLatCell = cellOf(Math.max(-90, south));
+        int maxLatCell = cellOf(Math.min(90, north));
+        int minLngCell = cellOf(allLongitudes ? -180 : origin[1] - lngSpan);
+        int maxLngCell = cellOf(allLongitudes ? 180 : origin[1] + lngSpan);
+        long boxCells = (long) (maxLatCell - minLatCell + 1) * (maxLngCell - minLngCell + 1);
+
+        List<Nearby> results = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (boxCells > cells.size()) {
+                for (List<Entry> cell : cells.values()) {
+                    collect(cell, origin, radiusMiles, earliest, latest, results);
+                }
+            } else {
+                for (int latCell = minLatCell; latCell <= maxLatCell; latCell++) {
+                    for (int lngCell = minLngCell; lngCell <= maxLngCell; lngCell++) {
+                        List<Entry> cell = cells.get(cellKey(latCell, lngCell));
+                        if (cell != null) {
+                            collect(cell, origin, radiusMiles, earliest, latest, results);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        results.sort(Comparator.comparingDouble(Nearby::getDistanceMiles).thenComparing(Nearby::getEventID));
+        return results;
+    }
+
+    /**
+     * Finds the events within a distance of a ZIP code and date range, nearest first. Only the
+     * events inside the radius are read from the database.
+     * @param dbManager The database manager instance.
+     * @param zipCode The ZIP code to search from.
+     * @param radiusMiles The search radius in miles.
+     * @param from The earliest event date, or null for no lower bound.
+     * @param to The latest event date, or null for no upper bound.
+     * @return The nearby events, nearest first.
+     * @throws SQLException if an event cannot be loaded.
+     * @throws IllegalArgumentException if the ZIP code is unknown or the radius is negative or not finite.
+     */
+    public List<Event> findEventsNear(VolunteerDatabase dbManager, String zipCode, double radiusMiles, Date from, Date to) throws SQLException {
+        List<Event> events = new ArrayList<>();
+        for (Nearby nearby : findNear(zipCode, radiusMiles, from, to)) {
+            Event event = dbManager.getEventByID(nearby.getEventID());
+            if (event != null) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Gets the number of events placed in the index.
+     * @return The indexed event count.
+     */
+    public int getEventCount() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Computes the great-circle distance between two points with the haversine formula.
+     * @param lat1 The latitude of the first point, in degrees.
+     * @param lng1 The longitude of the first point, in degrees.
+     * @param lat2 The latitude of the second point, in degrees.
+     * @param lng2 The longitude of the second point, in degrees.
+     * @return The distance in miles.
+     */
+    static double distanceMiles(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_MILES * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /**
+     * Adds the entries of one cell that fall within the radius and date range to the results.
+     */
+    private static void collect(List<Entry> cell, double[] origin, double radiusMiles, long earliest, long latest, List<Nearby> results) {
+        for (Entry entry : cell) {
+            if (entry.date < earliest || entry.date > latest) {
+                continue;
+            }
+            double miles = distanceMiles(origin[0], origin[1], entry.latitude, entry.longitude);
+            if (miles <= radiusMiles) {
+                results.add(new Nearby(entry.eventID, miles));
+            }
+        }
+    }
+
+    private void removeEntry(String eventID) {
+        Entry old = entries.remove(eventID);
+        if (old == null) {
+            return;
+        }
+        long key = cellKey(cellOf(old.latitude), cellOf(old.longitude));
+        List<Entry> cell = cells.get(key);
+        cell.remove(old);
+        if (cell.isEmpty()) {
+            cells.remove(key);
+        }
+    }
+
+    private static int cellOf(double degrees) {
+        return (int) Math.floor(degrees / CELL_DEGREES);
+    }
+
+    private static long cellKey(int latCell, int lngCell) {
+        return ((long) latCell << 32) | (lngCell & 0xFFFFFFFFL);
+    }
+
+    /**
+     * An indexed event's position and date.
+     */
+    private static final class Entry {
+        private final String eventID;
+        private final double latitude;
+        private final double longitude;
+        private final long date;
+
+        private Entry(String eventID, double latitude, double longitude, long date) {
+            this.eventID = eventID;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.date = date;
+        }
+    }
+
+    /**
+     * An event found by a proximity search.
+     */
+    public static class Nearby {
+        private final String eventID;
+        private final double distanceMiles;
+
+        private Nearby(String eventID, double distanceMiles) {
+            this.eventID = eventID;
+            this.distanceMiles = distanceMiles;
+        }
+
+        /**
+         * Gets the ID of the event.
+         * @return The event ID.
+         */
+        public String getEventID() { return eventID; }
+        /**
+         * Gets the distance from the search origin to the event's ZIP code centroid.
+         * @return The distance in miles.
+         */
+        public double getDistanceMiles() { return distanceMiles; }
+
+        @Override
+        public String toString() {
+            return String.format("%s (%.1f mi)", eventID, distanceMiles);
+        }
+    }
+}
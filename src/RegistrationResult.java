@@ -0,0 +1,14 @@
+/**
+ * The outcome of an attempt to register a volunteer for an event.
+ * @author Brandon Roos
+ */
+public enum RegistrationResult {
+    /** The volunteer was registered and a slot was taken. */
+    REGISTERED,
+    /** The event has no remaining slots. */
+    FULL,
+    /** The volunteer was already registered for the event. */
+    ALREADY_REGISTERED,
+    /** The event or the volunteer does not exist. */
+    NOT_FOUND
+}
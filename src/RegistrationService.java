@@ -0,0 +1,201 @@
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registers volunteers for events without oversubscribing them.
+ * The database is the authority: each registration claims a slot with a conditional
+ * update in {@link VolunteerDatabase#registerVolunteer(String, String)}. In front of it,
+ * a lock-free counter of free slots per event turns away sign-ups for a full event
+ * without touching the database, so a burst on a popular event costs one
+ * compare-and-set per rejected request rather than a transaction. Slots can also be freed
+ * outside this service, for example by {@link VolunteerDatabase#deleteUser(String)}, so a
+ * counter that reads full is checked against the database again at most once every
+ * {@link #FULL_RECHECK_MILLIS} milliseconds.
+ * @author Brandon Roos
+ */
+public class RegistrationService {
+    /** How long a full counter is trusted before the database is asked again. */
+    private static final long FULL_RECHECK_MILLIS = 1_000;
+
+    /** The database manager instance. */
+    private final VolunteerDatabase dbManager;
+    /** Free slots per event ID, loaded from the database on first use. */
+    private final ConcurrentMap<String, AtomicInteger> freeSlots = new ConcurrentHashMap<>();
+    /** When each full event was last checked against the database, in System.nanoTime() units. */
+    private final ConcurrentMap<String, Long> fullCheckedAt = new ConcurrentHashMap<>();
+    /** The matching engine told about slot changes, or null if there is none. */
+    private volatile MatchingEngine matchingEngine;
+
+    private final AtomicLong registered = new AtomicLong();
+    private final AtomicLong rejectedInMemory = new AtomicLong();
+    private final AtomicLong rejectedByDatabase = new AtomicLong();
+
+    /**
+     * Constructs a new RegistrationService.
+     *
+     * @param dbManager The database manager instance.
+     */
+    public RegistrationService(VolunteerDatabase dbManager) {
+        this.dbManager = dbManager;
+    }
+
+    /**
+     * Registers a volunteer for an event if a slot is free.
+     * @param eventID The ID of the event.
+     * @param userID The ID of the volunteer.
+     * @return The outcome of the registration.
+     * @throws SQLException if a database access error occurs.
+     */
+    public RegistrationResult register(String eventID, String userID) throws SQLException {
+        AtomicInteger slots = slotsFor(eventID);
+        if (slots == null) {
+            return RegistrationResult.NOT_FOUND;
+        }
+        if (!tryReserve(slots)) {
+            slots = recheckFull(eventID, slots);
+            if (slots == null || !tryReserve(slots)) {
+                rejectedInMemory.incrementAndGet();
+                return RegistrationResult.FULL;
+            }
+        }
+
+        RegistrationResult result;
+        try {
+            result = dbManager.registerVolunteer(eventID, userID);
+        } catch (SQLException | RuntimeException e) {
+            slots.incrementAndGet();
+            throw e;
+        }
+        if (result == RegistrationResult.REGISTERED) {
+            registered.incrementAndGet();
+            publishSlots(eventID, slots.get());
+        } else {
+            rejectedByDatabase.incrementAndGet();
+            if (result == RegistrationResult.FULL) {
+                // The counter was optimistic; resynchronize it with the database
+                freeSlots.remove(eventID, slots);
+            } else {
+                slots.incrementAndGet();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Cancels a volunteer's registration and returns the slot to the event.
+     * @param eventID The ID of the event.
+     * @param userID The ID of the volunteer.
+     * @return true if a registration was cancelled, false if the volunteer was not registered.
+     * @throws SQLException if a database access error occurs.
+     */
+    public boolean cancel(String eventID, String userID) throws SQLException {
+        boolean cancelled = dbManager.cancelRegistration(eventID, userID);
+        if (cancelled) {
+            AtomicInteger slots = freeSlots.get(eventID);
+            if (slots != null) {
+                publishSlots(eventID, slots.incrementAndGet());
+            }
+        }
+        return cancelled;
+    }
+
+    /**
+     * Drops the cached slot count for an event, for example after its capacity was edited.
+     * The next registration reloads it from the database.
+     * @param eventID The ID of the event.
+     */
+    public void invalidate(String eventID) {
+        freeSlots.remove(eventID);
+        fullCheckedAt.remove(eventID);
+    }
+
+    /**
+     * Keeps a matching engine's free slot counts in step with registrations made through this service.
+     * @param matchingEngine The engine to update, or null to stop updating.
+     */
+    public void setMatchingEngine(MatchingEngine matchingEngine) {
+        this.matchingEngine = matchingEngine;
+    }
+
+    /**
+     * Gets the number of successful registrations.
+     * @return The registration count.
+     */
+    public long getRegisteredCount() { return registered.get(); }
+    /**
+     * Gets the number of registrations turned away by the in-memory counter.
+     * @return The count of requests rejected without a database call.
+     */
+    public long getRejectedInMemoryCount() { return rejectedInMemory.get(); }
+    /**
+     * Gets the number of registrations the database refused.
+     * @return The count of requests rejected by the database.
+     */
+    public long getRejectedByDatabaseCount() { return rejectedByDatabase.get(); }
+
+    private AtomicInteger slotsFor(String eventID) throws SQLException {
+        AtomicInteger slots = freeSlots.get(eventID);
+        if (slots != null) {
+            return slots;
+        }
+        int remaining = dbManager.getRemainingSlots(eventID);
+        if (remaining < 0) {
+            return null;
+        }
+        AtomicInteger loaded = new AtomicInteger(remaining);
+        AtomicInteger existing = freeSlots.putIfAbsent(eventID, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * Reloads a full event's free slots from the database if it has not been checked within
+     * FULL_RECHECK_MILLIS. Only one caller rechecks an event at a time; the others stay rejected.
+     * @return The reloaded counter, or null if the event is still full or was checked recently.
+     */
+    private AtomicInteger recheckFull(String eventID, AtomicInteger slots) throws SQLException {
+        long now = System.nanoTime();
+        Long checked = fullCheckedAt.get(eventID);
+        if (checked != null && now - checked < TimeUnit.MILLISECONDS.toNanos(FULL_RECHECK_MILLIS)) {
+            return null;
+        }
+        boolean claimed = checked == null
+                ? fullCheckedAt.putIfAbsent(eventID, now) == null
+                : fullCheckedAt.replace(eventID, checked, now);
+        if (!claimed) {
+            return null;
+        }
+        int remaining = dbManager.getRemainingSlots(eventID);
+        if (remaining <= 0) {
+            return null;
+        }
+        AtomicInteger reloaded = new AtomicInteger(remaining);
+        if (!freeSlots.replace(eventID, slots, reloaded)) {
+            return freeSlots.get(eventID);
+        }
+        publishSlots(eventID, remaining);
+        return reloaded;
+    }
+
+    private void publishSlots(String eventID, int remaining) {
+        MatchingEngine engine = matchingEngine;
+        if (engine != null) {
+            engine.setRemainingSlots(eventID, remaining);
+        }
+    }
+
+    private static boolean tryReserve(AtomicInteger slots) {
+        while (true) {
+            int free = slots.get();
+            if (free <= 0) {
+                return false;
+            }
+            if (slots.compareAndSet(free, free - 1)) {
+                return true;
+            }
+        }
+    }
+}
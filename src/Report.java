@@ -1,3 +1,10 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
 
@@ -6,6 +13,11 @@ import java.util.List;
  * @author Brandon Roos
  */
 public class Report {
+    /** The column headings of a volunteer record export. */
+    private static final String[] RECORD_COLUMNS = {"recordID", "userID", "eventID", "hoursSubmitted", "submissionDate", "status", "approverID"};
+    /** How many rows are written between progress callbacks. */
+    private static final int PROGRESS_INTERVAL = 10_000;
+
     /** A unique ID for the report. */
     private String reportID;
     /** The type of report (e.g., "PDF", "CSV"). */
@@ -33,20 +45,142 @@ public class Report {
      * Generates a PDF report from a list of volunteer records.
      *
      * @param records a list of VolunteerRecord objects.
+     * @param file the file to write.
+     * @return the number of pages written.
+     * @throws IOException if the file cannot be written.
+     */
+    public int generatePDF(List<VolunteerRecord> records, Path file) throws IOException {
+        Path partial = partialFile(file);
+        int pages;
+        try (PdfWriter pdf = new PdfWriter(Files.newOutputStream(partial), "Volunteer Hours Report")) {
+            HoursPdfLines lines = new HoursPdfLines(pdf);
+            for (VolunteerRecord record : records) {
+                lines.write(record);
+            }
+            lines.finish();
+            pages = pdf.getPageCount();
+        } catch (IOException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING);
+        System.out.println("Generated " + pages + " page PDF report for " + records.size() + " records.");
+        return pages;
+    }
+
+    /**
+     * Generates a PDF hours report for one organization, streaming its volunteer records from a
+     * database cursor. Pages are written as they fill, so memory use stays constant however
+     * many records the organization has.
+     *
+     * @param dbManager the database manager to read records from.
+     * @param orgID the ID of the organization to report on.
+     * @param file the file to write.
+     * @return the number of pages written.
+     * @throws SQLException if the records cannot be read.
+     * @throws IOException if the file cannot be written.
      */
-    public void generatePDF(List<VolunteerRecord> records) {
-        System.out.println("Generating PDF report for " + records.size() + " records.");
-        // Implementation for PDF generation
+    public int generatePDF(VolunteerDatabase dbManager, String orgID, Path file) throws SQLException, IOException {
+        Organization org = dbManager.getOrganizationByID(orgID);
+        String title = "Volunteer Hours Report - " + (org != null ? org.getOrgName() : orgID);
+        Path partial = partialFile(file);
+        int pages;
+        try (PdfWriter pdf = new PdfWriter(Files.newOutputStream(partial), title)) {
+            HoursPdfLines lines = new HoursPdfLines(pdf);
+            try {
+                dbManager.forEachRecordForOrg(orgID, record -> {
+                    try {
+                        lines.write(record);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            lines.finish();
+            pages = pdf.getPageCount();
+        } catch (SQLException | IOException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING);
+        System.out.println("Generated " + pages + " page PDF report for organization " + orgID + ".");
+        return pages;
     }
 
     /**
      * Exports a CSV report from a list of volunteer records.
      *
      * @param records a list of VolunteerRecord objects.
+     * @param file the file to write.
+     * @return the number of records written.
+     * @throws IOException if the file cannot be written.
+     */
+    public long exportCSV(List<VolunteerRecord> records, Path file) throws IOException {
+        Path partial = partialFile(file);
+        try (CsvWriter csv = new CsvWriter(partial, isGzip(file))) {
+            RecordRowWriter rows = new RecordRowWriter(csv, records.size(), null);
+            for (VolunteerRecord record : records) {
+                rows.write(record);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING);
+        System.out.println("Exported " + records.size() + " records to " + file + ".");
+        return records.size();
+    }
+
+    /**
+     * Exports every volunteer record to a CSV file, streaming rows from a database cursor
+     * so memory use stays constant however many records there are. A file name ending in
+     * ".gz" is gzip-compressed. The file only appears once the export has completed.
+     *
+     * @param dbManager the database manager to read records from.
+     * @param file the file to write.
+     * @param progress notified as rows are written; may be null.
+     * @return the number of records written.
+     * @throws SQLException if the records cannot be read.
+     * @throws IOException if the file cannot be written.
      */
-    public void exportCSV(List<VolunteerRecord> records) {
-        System.out.println("Exporting CSV report for " + records.size() + " records.");
-        // Implementation for CSV export
+    public long exportCSV(VolunteerDatabase dbManager, Path file, ProgressListener progress) throws SQLException, IOException {
+        long total = dbManager.volunteerRecordPages().count();
+        Path partial = partialFile(file);
+        long written;
+        try (CsvWriter csv = new CsvWriter(partial, isGzip(file))) {
+            RecordRowWriter rows = new RecordRowWriter(csv, total, progress);
+            try {
+                dbManager.forEachVolunteerRecord(record -> {
+                    try {
+                        rows.write(record);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            written = csv.getRowCount() - 1;
+            if (progress != null) {
+                progress.rowsWritten(written, total);
+            }
+        } catch (SQLException | IOException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING);
+        System.out.println("Exported " + written + " records to " + file + ".");
+        return written;
+    }
+
+    private static Path partialFile(Path file) {
+        return file.resolveSibling(file.getFileName() + ".part");
+    }
+
+    private static boolean isGzip(Path file) {
+        return file.getFileName().toString().endsWith(".gz");
     }
 
     /**
@@ -80,4 +214,80 @@ public class Report {
      * @return The generator's ID.
      */
     public String getGeneratedBy() { return generatedBy; }
+
+    /**
+     * Receives progress updates during a long-running export.
+     */
+    public interface ProgressListener {
+        /**
+         * Called periodically while rows are written, and once when the export finishes.
+         * @param written The number of rows written so far.
+         * @param total The number of rows expected, which may be out of date if rows are
+         *              added during the export.
+         */
+        void rowsWritten(long written, long total);
+    }
+
+    /**
+     * Writes volunteer records as fixed-width PDF lines, followed by hour totals.
+     */
+    private static final class HoursPdfLines {
+        private static final String LINE_FORMAT = "%-10s %-41s %-41s %6s %-8s";
+        private final PdfWriter pdf;
+        private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        private long records;
+        private double submittedHours;
+        private double approvedHours;
+
+        private HoursPdfLines(PdfWriter pdf) throws IOException {
+            this.pdf = pdf;
+            pdf.addLine(String.format(LINE_FORMAT, "Date", "Volunteer", "Event", "Hours", "Status"));
+        }
+
+        private void write(VolunteerRecord record) throws IOException {
+            Date submitted = record.getSubmissionDate();
+            pdf.addLine(String.format(LINE_FORMAT, submitted == null ? "" : dateFormat.format(submitted),
+                    record.getUserID(), record.getEventID(), String.format("%.2f", record.getHoursSubmitted()),
+                    record.getApprovalStatus()));
+            records++;
+            submittedHours += record.getHoursSubmitted();
+            if (record.getApprovalStatus() == VolunteerRecord.Status.APPROVED) {
+                approvedHours += record.getHoursSubmitted();
+            }
+        }
+
+        private void finish() throws IOException {
+            pdf.addLine("");
+            pdf.addLine(String.format("%d records, %.2f hours submitted, %.2f hours approved.", records, submittedHours, approvedHours));
+        }
+    }
+
+    /**
+     * Writes volunteer records as CSV rows after a header row, reporting progress.
+     */
+    private static final class RecordRowWriter {
+        private final CsvWriter csv;
+        private final long total;
+        private final ProgressListener progress;
+        private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+
+        private RecordRowWriter(CsvWriter csv, long total, ProgressListener progress) throws IOException {
+            this.csv = csv;
+            this.total = total;
+            this.progress = progress;
+            csv.writeRow((Object[]) RECORD_COLUMNS);
+        }
+
+        private void write(VolunteerRecord record) throws IOException {
+            Date submitted = record.getSubmissionDate();
+            csv.writeRow(record.getRecordID(), record.getUserID(), record.getEventID(), record.getHoursSubmitted(),
+                    submitted == null ? null : dateFormat.format(submitted),
+                    record.getApprovalStatus() == null ? null : record.getApprovalStatus().name(),
+                    record.getApproverID());
+            long written = csv.getRowCount() - 1;
+            if (progress != null && written % PROGRESS_INTERVAL == 0) {
+                progress.rowsWritten(written, total);
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -1,17 +1,32 @@
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.SQLException;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * A graphical user interface for generating reports.
  * This class displays all data from the database in a tabbed table format.
+ * Each tab is loaded in parallel on a background pool, so the window opens immediately
+ * and shows a loading indicator per tab until its first rows arrive.
  * @author Brandon Roos
  */
 public class ReportGUI extends JFrame {
+    /** The number of threads loading report data; one per tab. */
+    private static final int LOADER_THREADS = 4;
+    /** The number of pages each tab fetches up front, before the user scrolls. */
+    private static final int INITIAL_PAGES = 3;
+
     private VolunteerDatabase dbManager;
     private JTabbedPane tabbedPane;
+    /** Runs tab loaders and page fetches off the Event Dispatch Thread. */
+    private final ExecutorService loaderPool;
+    /** The loaders started for each tab, cancelled when the window closes. */
+    private final List<TabLoader<?>> tabLoaders = new ArrayList<>();
 
     public ReportGUI(VolunteerDatabase dbManager) {
         this.dbManager = dbManager;
@@ -20,6 +35,18 @@ public class ReportGUI extends JFrame {
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         setLocationRelativeTo(null);
 
+        loaderPool = Executors.newFixedThreadPool(LOADER_THREADS, r -> {
+            Thread t = new Thread(r, "report-loader");
+            t.setDaemon(true);
+            return t;
+        });
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                cancelLoading();
+            }
+        });
+
         tabbedPane = new JTabbedPane();
         add(tabbedPane);
 
@@ -34,73 +61,153 @@ public class ReportGUI extends JFrame {
 
     private void setupUserReportTab() {
         String[] columnNames = {"User ID", "First Name", "Last Name", "Email", "Role", "Total Hours"};
-        DefaultTableModel model = new DefaultTableModel(columnNames, 0);
-        JTable table = new JTable(model);
-        JScrollPane scrollPane = new JScrollPane(table);
-        tabbedPane.addTab("Users", scrollPane);
-
-        try {
-            List<User> users = dbManager.getAllUsers();
-            for (User user : users) {
-                Object[] rowData = {user.getUserID(), user.getFirstName(), user.getLastName(), user.getEmail(), user.getRole().name(), user.getTotalHours()};
-                model.addRow(rowData);
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Error loading users: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        PagedTableModel<User> model = new PagedTableModel<>(columnNames, dbManager.userPages(),
+                user -> new Object[]{user.getUserID(), user.getFirstName(), user.getLastName(), user.getEmail(), user.getRole().name(), user.getTotalHours()});
+        addReportTab("Users", model);
     }
 
     private void setupOrganizationReportTab() {
         String[] columnNames = {"Org ID", "Name", "Contact Person", "Email", "Phone"};
-        DefaultTableModel model = new DefaultTableModel(columnNames, 0);
-        JTable table = new JTable(model);
-        JScrollPane scrollPane = new JScrollPane(table);
-        tabbedPane.addTab("Organizations", scrollPane);
-
-        try {
-            List<Organization> orgs = dbManager.getAllOrganizations();
-            for (Organization org : orgs) {
-                Object[] rowData = {org.getOrgID(), org.getOrgName(), org.getContactPersonName(), org.getContactEmail(), org.getContactPhone()};
-                model.addRow(rowData);
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Error loading organizations: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        PagedTableModel<Organization> model = new PagedTableModel<>(columnNames, dbManager.organizationPages(),
+                org -> new Object[]{org.getOrgID(), org.getOrgName(), org.getContactPersonName(), org.getContactEmail(), org.getContactPhone()});
+        addReportTab("Organizations", model);
     }
 
     private void setupEventReportTab() {
         String[] columnNames = {"Event ID", "Title", "Date", "Location", "Max Volunteers", "Current Volunteers"};
-        DefaultTableModel model = new DefaultTableModel(columnNames, 0);
-        JTable table = new JTable(model);
-        JScrollPane scrollPane = new JScrollPane(table);
-        tabbedPane.addTab("Events", scrollPane);
-
-        try {
-            List<Event> events = dbManager.getAllEvents();
-            for (Event event : events) {
-                Object[] rowData = {event.getEventID(), event.getTitle(), event.getDate(), event.getLocation().formatAddress(), event.getMaxVolunteers(), event.getCurrentVolunteers()};
-                model.addRow(rowData);
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Error loading events: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        PagedTableModel<Event> model = new PagedTableModel<>(columnNames, dbManager.eventPages(),
+                event -> new Object[]{event.getEventID(), event.getTitle(), event.getDate(), event.getLocation().formatAddress(), event.getMaxVolunteers(), event.getCurrentVolunteers()});
+        addReportTab("Events", model);
     }
 
     private void setupVolunteerRecordReportTab() {
         String[] columnNames = {"Record ID", "User ID", "Event ID", "Hours Submitted", "Status"};
-        DefaultTableModel model = new DefaultTableModel(columnNames, 0);
+        PagedTableModel<VolunteerRecord> model = new PagedTableModel<>(columnNames, dbManager.volunteerRecordPages(),
+                record -> new Object[]{record.getRecordID(), record.getUserID(), record.getEventID(), record.getHoursSubmitted(), record.getApprovalStatus().name()});
+        addReportTab("Volunteer Records", model);
+    }
+
+    /**
+     * Adds a tab showing the given model and starts loading it in the background.
+     * Once the first pages are in, further pages are fetched on the same pool as they are scrolled into view.
+     */
+    private <T> void addReportTab(String title, PagedTableModel<T> model) {
         JTable table = new JTable(model);
         JScrollPane scrollPane = new JScrollPane(table);
-        tabbedPane.addTab("Volunteer Records", scrollPane);
+        JProgressBar loadingBar = new JProgressBar();
+        loadingBar.setIndeterminate(true);
+        loadingBar.setStringPainted(true);
+        loadingBar.setString("Loading " + title.toLowerCase() + "...");
+
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.add(loadingBar, BorderLayout.NORTH);
+        panel.add(scrollPane, BorderLayout.CENTER);
+        tabbedPane.addTab(title, panel);
+
+        model.setBackgroundLoader(loaderPool);
+        TabLoader<T> loader = new TabLoader<>(title, model, panel, loadingBar);
+        tabLoaders.add(loader);
+        loaderPool.execute(loader);
+    }
+
+    /**
+     * Stops all tab loaders. Queries already running are allowed to finish rather than
+     * interrupted, since interrupting Derby mid-I/O can invalidate the pooled connection.
+     */
+    private void cancelLoading() {
+        for (TabLoader<?> loader : tabLoaders) {
+            loader.cancel(false);
+        }
+        loaderPool.shutdown();
+    }
+
+    /**
+     * Counts a tab's rows and fetches its first pages in the background, publishing
+     * each page to the table model as soon as it arrives.
+     */
+    private final class TabLoader<T> extends SwingWorker<Integer, LoadedPage<T>> {
+        private final String title;
+        private final PagedTableModel<T> model;
+        private final JPanel panel;
+        private final JProgressBar loadingBar;
+        private volatile int rowCount;
+        private boolean rowCountShown;
+
+        private TabLoader(String title, PagedTableModel<T> model, JPanel panel, JProgressBar loadingBar) {
+            this.title = title;
+            this.model = model;
+            this.panel = panel;
+            this.loadingBar = loadingBar;
+        }
+
+        @Override
+        protected Integer doInBackground() throws Exception {
+            PageSource<T> source = model.getSource();
+            rowCount = source.count();
+            String afterKey = null;
+            int pageSize = model.getPageSize();
+            for (int pageNumber = 0; pageNumber < INITIAL_PAGES && pageNumber * pageSize < rowCount; pageNumber++) {
+                if (isCancelled()) {
+                    break;
+                }
+                List<T> rows = source.pageAfter(afterKey, pageSize);
+                publish(new LoadedPage<>(pageNumber, rows));
+                if (rows.size() < pageSize) {
+                    break;
+                }
+                afterKey = source.keyOf(rows.get(rows.size() - 1));
+            }
+            return rowCount;
+        }
+
+        @Override
+        protected void process(List<LoadedPage<T>> chunks) {
+            if (isCancelled()) {
+                return;
+            }
+            showRowCount();
+            for (LoadedPage<T> page : chunks) {
+                model.putPage(page.pageNumber, page.rows);
+            }
+        }
 
-        try {
-            List<VolunteerRecord> records = dbManager.getAllVolunteerRecords();
-            for (VolunteerRecord record : records) {
-                Object[] rowData = {record.getRecordID(), record.getUserID(), record.getEventID(), record.getHoursSubmitted(), record.getApprovalStatus().name()};
-                model.addRow(rowData);
+        @Override
+        protected void done() {
+            if (isCancelled()) {
+                return;
             }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Error loading records: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+            panel.remove(loadingBar);
+            panel.revalidate();
+            panel.repaint();
+            try {
+                get();
+                showRowCount();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                JOptionPane.showMessageDialog(ReportGUI.this, "Error loading " + title.toLowerCase() + ": " + cause.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+            }
+        }
+
+        private void showRowCount() {
+            if (!rowCountShown) {
+                rowCountShown = true;
+                model.setRowCount(rowCount);
+            }
+        }
+    }
+
+    /**
+     * A page of rows fetched by a tab loader, handed to the Event Dispatch Thread.
+     */
+    private static final class LoadedPage<T> {
+        private final int pageNumber;
+        private final List<T> rows;
+
+        private LoadedPage(int pageNumber, List<T> rows) {
+            this.pageNumber = pageNumber;
+            this.rows = rows;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,249 @@
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A compact map of academic semester to hours, used for {@link User#getAcademicSemesterHours()}.
+ * Semester names are interned once per JVM to small integer codes, and each instance stores
+ * its entries in parallel {@code int[]} and {@code double[]} arrays, so adding hours never
+ * allocates a boxed Double or a hash node. A user typically has a handful of semesters, so
+ * lookups scan the arrays linearly. The {@link Map} methods behave as they do on a HashMap,
+ * except that null keys and values are not allowed.
+ * @author Brandon Roos
+ */
+public final class SemesterHours extends AbstractMap<String, Double> {
+    /** Semester codes by name, shared by every instance. */
+    private static final Map<String, Integer> CODES = new ConcurrentHashMap<>();
+    /** Semester names by code; replaced, never modified, when a name is interned. */
+    private static volatile String[] names = new String[0];
+
+    private static final int[] NO_CODES = new int[0];
+    private static final double[] NO_HOURS = new double[0];
+
+    /** The interned semester code of each entry. */
+    private int[] codes = NO_CODES;
+    /** The hours of each entry, parallel to codes. */
+    private double[] hours = NO_HOURS;
+    /** The number of entries in use. */
+    private int size;
+
+    /**
+     * Constructs an empty SemesterHours.
+     */
+    public SemesterHours() {
+    }
+
+    /**
+     * Constructs a SemesterHours holding the entries of another map.
+     * @param other The map to copy.
+     */
+    public SemesterHours(Map<String, Double> other) {
+        putAll(other);
+    }
+
+    /**
+     * Adds hours to a semester without boxing.
+     * @param semester The semester name.
+     * @param amount The hours to add.
+     */
+    public void add(String semester, double amount) {
+        int code = intern(semester);
+        int index = indexOf(code);
+        if (index >= 0) {
+            hours[index] += amount;
+        } else {
+            append(code, amount);
+        }
+    }
+
+    /**
+     * Adds every entry of another SemesterHours to this one.
+     * @param other The hours to add.
+     */
+    public void addAll(SemesterHours other) {
+        for (int i = 0; i < other.size; i++) {
+            int index = indexOf(other.codes[i]);
+            if (index >= 0) {
+                hours[index] += other.hours[i];
+            } else {
+                append(other.codes[i], other.hours[i]);
+            }
+        }
+    }
+
+    /**
+     * Gets the hours for a semester without boxing.
+     * @param semester The semester name.
+     * @return The hours, or 0.0 if the semester has none.
+     */
+    public double getHours(String semester) {
+        int index = find(semester);
+        return index >= 0 ? hours[index] : 0.0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) >= 0;
+    }
+
+    @Override
+    public Double get(Object key) {
+        int index = find(key);
+        return index >= 0 ? hours[index] : null;
+    }
+
+    @Override
+    public Double put(String semester, Double value) {
+        if (value == null) {
+            throw new NullPointerException("Semester hours cannot be null.");
+        }
+        int code = intern(semester);
+        int index = indexOf(code);
+        if (index >= 0) {
+            double previous = hours[index];
+            hours[index] = value;
+            return previous;
+        }
+        append(code, value);
+        return null;
+    }
+
+    @Override
+    public Double remove(Object key) {
+        int index = find(key);
+        if (index < 0) {
+            return null;
+        }
+        double previous = hours[index];
+        removeAt(index);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+    }
+
+    @Override
+    public Set<Map.Entry<String, Double>> entrySet() {
+        return new EntrySet();
+    }
+
+    private static int intern(String semester) {
+        if (semester == null) {
+            throw new NullPointerException("Semester cannot be null.");
+        }
+        Integer code = CODES.get(semester);
+        if (code != null) {
+            return code;
+        }
+        synchronized (CODES) {
+            code = CODES.get(semester);
+            if (code == null) {
+                String[] grown = Arrays.copyOf(names, names.length + 1);
+                code = names.length;
+                grown[code] = semester;
+                names = grown;
+                CODES.put(semester, code);
+            }
+            return code;
+        }
+    }
+
+    private int find(Object key) {
+        if (!(key instanceof String)) {
+            return -1;
+        }
+        Integer code = CODES.get(key);
+        return code == null ? -1 : indexOf(code);
+    }
+
+    private int indexOf(int code) {
+        for (int i = 0; i < size; i++) {
+            if (codes[i] == code) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void append(int code, double amount) {
+        if (size == codes.length) {
+            int capacity = Math.max(2, size * 2);
+            codes = Arrays.copyOf(codes, capacity);
+            hours = Arrays.copyOf(hours, capacity);
+        }
+        codes[size] = code;
+        hours[size] = amount;
+        size++;
+    }
+
+    private void removeAt(int index) {
+        int moved = size - index - 1;
+        System.arraycopy(codes, index + 1, codes, index, moved);
+        System.arraycopy(hours, index + 1, hours, index, moved);
+        size--;
+    }
+
+    /**
+     * A view of the entries, created on demand for code that uses the Map interface.
+     */
+    private final class EntrySet extends AbstractSet<Map.Entry<String, Double>> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<Map.Entry<String, Double>> iterator() {
+            return new Iterator<Map.Entry<String, Double>>() {
+                private int next;
+                private int last = -1;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size;
+                }
+
+                @Override
+                public Map.Entry<String, Double> next() {
+                    if (next >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    last = next++;
+                    final int index = last;
+                    return new SimpleEntry<String, Double>(names[codes[index]], hours[index]) {
+                        @Override
+                        public Double setValue(Double value) {
+                            if (value == null) {
+                                throw new NullPointerException("Semester hours cannot be null.");
+                            }
+                            hours[index] = value;
+                            return super.setValue(value);
+                        }
+                    };
+                }
+
+                @Override
+                public void remove() {
+                    if (last < 0) {
+                        throw new IllegalStateException();
+                    }
+                    removeAt(last);
+                    next = last;
+                    last = -1;
+                }
+            };
+        }
+    }
+}
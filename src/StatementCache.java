@@ -0,0 +1,210 @@
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An LRU cache of prepared statements for a single physical connection, keyed by SQL text.
+ * Statements handed out by {@link #prepare(Connection, String)} are handles; closing a handle
+ * clears its parameters and keeps the underlying statement ready for the next caller that
+ * prepares the same SQL, so repeated queries skip Derby's statement compilation.
+ * A cache belongs to one pooled connection and is only used by the thread that has it borrowed.
+ * @author Brandon Roos
+ */
+public class StatementCache {
+    /** The maximum number of statements kept prepared. */
+    private final int maxSize;
+    /** Cached statements in least-recently-used order. */
+    private final LinkedHashMap<String, CachedStatement> statements;
+    /** Shared counter of prepares served from a cache. */
+    private final AtomicLong hits;
+    /** Shared counter of prepares that had to compile a new statement. */
+    private final AtomicLong misses;
+    /** Shared counter of statements closed to stay within the size bound. */
+    private final AtomicLong evictions;
+
+    /**
+     * Constructs a new StatementCache.
+     *
+     * @param maxSize the maximum number of statements to keep prepared.
+     * @param hits the counter incremented on each cache hit.
+     * @param misses the counter incremented on each cache miss.
+     * @param evictions the counter incremented each time a statement is evicted.
+     */
+    public StatementCache(int maxSize, AtomicLong hits, AtomicLong misses, AtomicLong evictions) {
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns a prepared statement for the given SQL, reusing a cached one when it is free.
+     *
+     * @param physical the physical connection that owns this cache.
+     * @param sql the SQL text to prepare.
+     * @return A PreparedStatement handle; closing it returns the statement to the cache.
+     * @throws SQLException if the statement cannot be prepared.
+     */
+    public PreparedStatement prepare(Connection physical, String sql) throws SQLException {
+        CachedStatement cached = statements.get(sql);
+        if (cached != null && !cached.inUse) {
+            hits.incrementAndGet();
+            cached.inUse = true;
+            return cached.newHandle();
+        }
+        misses.incrementAndGet();
+        PreparedStatement statement = physical.prepareStatement(sql);
+        if (cached != null || maxSize <= 0) {
+            // Already checked out by this borrower (nested use); hand out an uncached statement.
+            return statement;
+        }
+        CachedStatement fresh = new CachedStatement(sql, statement);
+        fresh.inUse = true;
+        statements.put(sql, fresh);
+        evictOverflow();
+        return fresh.newHandle();
+    }
+
+    /**
+     * Closes every cached statement. Called when the owning connection is discarded.
+     */
+    public void closeAll() {
+        List<CachedStatement> all = new ArrayList<>(statements.values());
+        statements.clear();
+        for (CachedStatement cached : all) {
+            cached.closePhysical();
+        }
+    }
+
+    /**
+     * Gets the number of statements currently cached.
+     * @return The cache size.
+     */
+    public int size() { return statements.size(); }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, CachedStatement>> it = statements.entrySet().iterator();
+        while (statements.size() > maxSize && it.hasNext()) {
+            CachedStatement eldest = it.next().getValue();
+            it.remove();
+            evictions.incrementAndGet();
+            if (eldest.inUse) {
+                eldest.evicted = true;
+            } else {
+                eldest.closePhysical();
+            }
+        }
+    }
+
+    /**
+     * A statement owned by the cache along with its reset state.
+     */
+    private final class CachedStatement {
+        private final String sql;
+        private final PreparedStatement physical;
+        private final int defaultFetchSize;
+        private final int defaultMaxRows;
+        private boolean inUse;
+        private boolean evicted;
+
+        private CachedStatement(String sql, PreparedStatement physical) throws SQLException {
+            this.sql = sql;
+            this.physical = physical;
+            this.defaultFetchSize = physical.getFetchSize();
+            this.defaultMaxRows = physical.getMaxRows();
+        }
+
+        private PreparedStatement newHandle() {
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, new Handle(this));
+        }
+
+        /**
+         * Puts the statement back into its freshly-prepared state, or closes it if it was
+         * evicted while checked out or can no longer be reset.
+         */
+        private void giveBack() {
+            inUse = false;
+            if (evicted) {
+                closePhysical();
+                return;
+            }
+            try {
+                physical.clearParameters();
+                physical.clearBatch();
+                physical.clearWarnings();
+                if (physical.getFetchSize() != defaultFetchSize) {
+                    physical.setFetchSize(defaultFetchSize);
+                }
+                if (physical.getMaxRows() != defaultMaxRows) {
+                    physical.setMaxRows(defaultMaxRows);
+                }
+            } catch (SQLException e) {
+                statements.remove(sql, this);
+                closePhysical();
+            }
+        }
+
+        private void closePhysical() {
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                // The statement is being discarded either way.
+            }
+        }
+    }
+
+    /**
+     * Routes calls on a statement handle to the cached statement, and turns
+     * {@code close()} into a return to the cache.
+     */
+    private static final class Handle implements InvocationHandler {
+        private final CachedStatement cached;
+        private boolean handleClosed;
+
+        private Handle(CachedStatement cached) {
+            this.cached = cached;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!handleClosed) {
+                        handleClosed = true;
+                        cached.giveBack();
+                    }
+                    return null;
+                case "isClosed":
+                    return handleClosed || cached.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + cached.sql + "]";
+                default:
+                    break;
+            }
+            if (handleClosed) {
+                throw new SQLException("Statement has already been closed.", "XJ012");
+            }
+            try {
+                return method.invoke(cached.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
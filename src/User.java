@@ -1,6 +1,7 @@
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.HashMap;
 
 /**
  * The User class represents a volunteer in the Volunteer Hub application.
@@ -16,14 +17,18 @@ public class User {
     private String lastName;
     /** The email address of the user. */
     private String email;
+    /** The phone number the user checks in with at event kiosks. */
+    private String phoneNumber;
     /** The password for the user's account. */
     private String password;
     /** The role of the user (e.g., Volunteer, OrganizationRepresentative, Admin). */
     private Role role;
     /** The total number of service hours accumulated by the user. */
     private double totalHours;
-    /** A map to store service hours by academic semester. */
-    private Map<String, Double> academicSemesterHours;
+    /** Service hours by academic semester, stored without boxing. */
+    private SemesterHours academicSemesterHours;
+    /** The skills the volunteer offers, used to match them to new opportunities. */
+    private List<String> skills;
 
     /**
      * Enum to define the possible roles for a user.
@@ -52,7 +57,26 @@ public class User {
         this.password = password;
         this.role = role;
         this.totalHours = 0.0;
-        this.academicSemesterHours = new HashMap<>();
+        this.academicSemesterHours = new SemesterHours();
+        this.skills = new ArrayList<>();
+    }
+
+    /**
+     * Constructs a copy of another User, sharing none of its mutable state.
+     *
+     * @param other the user to copy.
+     */
+    public User(User other) {
+        this.userID = other.userID;
+        this.firstName = other.firstName;
+        this.lastName = other.lastName;
+        this.email = other.email;
+        this.phoneNumber = other.phoneNumber;
+        this.password = other.password;
+        this.role = other.role;
+        this.totalHours = other.totalHours;
+        this.academicSemesterHours = new SemesterHours(other.academicSemesterHours);
+        this.skills = new ArrayList<>(other.skills);
     }
 
     /**
@@ -82,6 +106,7 @@ public class User {
         System.out.println("User ID: " + this.userID);
         System.out.println("Name: " + this.firstName + " " + this.lastName);
         System.out.println("Email: " + this.email);
+        System.out.println("Phone: " + this.phoneNumber);
         System.out.println("Role: " + this.role);
         System.out.println("Total Hours: " + this.totalHours);
         System.out.println("Academic Semester Hours: " + this.academicSemesterHours);
@@ -113,6 +138,23 @@ public class User {
         System.out.println("Viewing notifications for " + this.firstName + "...");
     }
 
+    /**
+     * Displays the newest page of the user's notifications and the unread count.
+     *
+     * @param dbManager the database manager instance.
+     * @param limit the maximum number of notifications to display.
+     * @return The notifications displayed; pass the last one to {@link VolunteerDatabase#getInbox} for the next page.
+     * @throws SQLException if the notifications cannot be loaded.
+     */
+    public List<Notification> viewNotifications(VolunteerDatabase dbManager, int limit) throws SQLException {
+        List<Notification> inbox = dbManager.getInbox(this.userID, null, limit, false);
+        System.out.println("Notifications for " + this.firstName + " (" + dbManager.getUnreadCount(this.userID) + " unread):");
+        for (Notification notification : inbox) {
+            notification.displayNotification();
+        }
+        return inbox;
+    }
+
     /**
      * Gets the unique ID of the user.
      * @return The user ID.
@@ -133,6 +175,11 @@ public class User {
      * @return The user's email.
      */
     public String getEmail() { return email; }
+    /**
+     * Gets the phone number of the user.
+     * @return The user's phone number, or null if none is on file.
+     */
+    public String getPhoneNumber() { return phoneNumber; }
     /**
      * Gets the password of the user.
      * @return The user's password.
@@ -153,6 +200,11 @@ public class User {
      * @return The academic semester hours map.
      */
     public Map<String, Double> getAcademicSemesterHours() { return academicSemesterHours; }
+    /**
+     * Gets the skills the user offers.
+     * @return The list of skills.
+     */
+    public List<String> getSkills() { return skills; }
 
     /**
      * Sets the first name of the user.
@@ -169,6 +221,11 @@ public class User {
      * @param email The new email address.
      */
     public void setEmail(String email) { this.email = email; }
+    /**
+     * Sets the phone number of the user.
+     * @param phoneNumber The new phone number.
+     */
+    public void setPhoneNumber(String phoneNumber) { this.phoneNumber = phoneNumber; }
     /**
      * Sets the password of the user.
      * @param password The new password.
@@ -179,17 +236,34 @@ public class User {
      * @param role The new role.
      */
     public void setRole(Role role) { this.role = role; }
+    /**
+     * Sets the skills the user offers.
+     * @param skills The new list of skills.
+     */
+    public void setSkills(List<String> skills) { this.skills = new ArrayList<>(skills); }
     /**
      * Adds hours to the user's total hours.
      * @param hours The hours to add.
      */
     public void addHours(double hours) { this.totalHours += hours; }
+    /**
+     * Sets the user's total hours, as stored in the database.
+     * @param totalHours The total approved hours.
+     */
+    public void setTotalHours(double totalHours) { this.totalHours = totalHours; }
     /**
      * Adds hours to a specific academic semester.
      * @param semester The semester to add hours to.
      * @param hours The hours to add.
      */
     public void addAcademicHours(String semester, double hours) {
-        this.academicSemesterHours.merge(semester, hours, Double::sum);
+        this.academicSemesterHours.add(semester, hours);
+    }
+    /**
+     * Adds hours to several academic semesters at once.
+     * @param hours The hours to add, by semester.
+     */
+    public void addAcademicHours(SemesterHours hours) {
+        this.academicSemesterHours.addAll(hours);
     }
 }
\ No newline at end of file
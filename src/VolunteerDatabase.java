@@ -1,14 +1,24 @@
 import java.sql.*;
-import java.io.ByteArrayOutputStream;
-import java.io.ObjectOutputStream;
-import java.io.ByteArrayInputStream;
-import java.io.ObjectInputStream;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.Date;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 
 /**
@@ -21,6 +31,92 @@ public class VolunteerDatabase {
     private static final String DRIVER = "org.apache.derby.jdbc.EmbeddedDriver";
     private static final String JDBC_URL = "jdbc:derby:volunteerdb;create=true";
 
+    /** The number of connections the pool keeps open even when idle. */
+    private static final int POOL_MIN_SIZE = 2;
+    /** The maximum number of connections the pool will open at once. */
+    private static final int POOL_MAX_SIZE = 10;
+    /** How long a caller waits for a free pooled connection, in milliseconds. */
+    private static final long POOL_BORROW_TIMEOUT_MILLIS = 5_000;
+    /** How long a pooled connection may sit idle before it is closed, in milliseconds. */
+    private static final long POOL_IDLE_TIMEOUT_MILLIS = 5 * 60_000;
+    /** How long a connection may be held before it is reported as a possible leak, in milliseconds. */
+    private static final long POOL_LEAK_THRESHOLD_MILLIS = 60_000;
+    /** The number of prepared statements each pooled connection keeps compiled. */
+    private static final int STATEMENT_CACHE_SIZE = 64;
+
+    /** The default number of rows sent per JDBC batch by the bulk insert methods. */
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    /** The default number of rows fetched at a time by the streaming query methods. */
+    private static final int DEFAULT_FETCH_SIZE = 500;
+    /** The most values bound in one SQL IN list. */
+    private static final int MAX_IN_LIST = 500;
+
+    private static final String INSERT_USER_SQL = "INSERT INTO users (userID, firstName, lastName, email, password, role, totalHours, academicSemesterHours, phone) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ORGANIZATION_SQL = "INSERT INTO organizations (orgID, orgName, contactPersonName, contactEmail, contactPhone, password, description, addressStreet, addressCity, addressState, addressZipCode) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_EVENT_SQL = "INSERT INTO events (eventID, title, description, date, startTime, endTime, locationStreet, locationCity, locationState, locationZipCode, maxVolunteers, currentVolunteers, requiredSkills, orgID, contactInfo) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_NOTIFICATION_SQL = "INSERT INTO notifications (notificationID, userID, message, type, createdAt, readStatus, deliveryStatus, attempts, nextAttemptAt) VALUES (?, ?, ?, ?, ?, ?, 'PENDING', 0, ?)";
+    private static final String INSERT_USER_SKILL_SQL = "INSERT INTO user_skills (userID, skill, skillKey) VALUES (?, ?, ?)";
+    /** Selects pending records with the columns that decide where their hours are rolled up. */
+    private static final String PENDING_ROLLUP_SQL = "SELECT r.recordID, r.userID, r.hoursSubmitted, r.submissionDate, e.orgID " +
+            "FROM records r JOIN events e ON r.eventID = e.eventID WHERE r.status = 'PENDING'";
+    private static final String INSERT_RECORD_SQL = "INSERT INTO records (recordID, userID, eventID, hoursSubmitted, submissionDate, status, approverID) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    /** Outbox state of a notification waiting for delivery or retry. */
+    private static final String OUTBOX_PENDING = "PENDING";
+    /** Outbox state of a notification claimed by a dispatcher. */
+    private static final String OUTBOX_CLAIMED = "CLAIMED";
+    /** Outbox state of a delivered notification. */
+    private static final String OUTBOX_DELIVERED = "DELIVERED";
+    /** Outbox state of a notification that exhausted its retries. */
+    private static final String OUTBOX_FAILED = "FAILED";
+
+    /** The maximum number of users kept in the entity cache. */
+    private static final int USER_CACHE_SIZE = 1_000;
+    /** The maximum number of events kept in the entity cache. */
+    private static final int EVENT_CACHE_SIZE = 500;
+    /** The maximum number of organizations kept in the entity cache. */
+    private static final int ORGANIZATION_CACHE_SIZE = 200;
+    /** How long a cached entity is trusted before it is re-read, in minutes. */
+    private static final long ENTITY_CACHE_TTL_MINUTES = 5;
+
+    /**
+     * The secondary indexes created on startup. Each one serves a lookup that would
+     * otherwise scan the whole table; see the query that names it below.
+     */
+    private static final IndexDefinition[] INDEXES = {
+            new IndexDefinition("idx_records_user", "records", "userID"),
+            new IndexDefinition("idx_records_event", "records", "eventID"),
+            new IndexDefinition("idx_records_status_date", "records", "status", "submissionDate", "recordID"),
+            new IndexDefinition("idx_records_status_event", "records", "status", "eventID"),
+            new IndexDefinition("idx_events_org", "events", "orgID", "date"),
+            new IndexDefinition("idx_events_date", "events", "date"),
+            new IndexDefinition("idx_users_email", "users", "email"),
+            new IndexDefinition("idx_users_phone", "users", "phone"),
+            new IndexDefinition("idx_registrations_user", "event_registrations", "userID", "eventID"),
+            new IndexDefinition("idx_notifications_inbox", "notifications", "userID", "readStatus", "createdAt"),
+            new IndexDefinition("idx_notifications_user_time", "notifications", "userID", "createdAt", "notificationID"),
+            new IndexDefinition("idx_notifications_outbox", "notifications", "deliveryStatus", "nextAttemptAt"),
+            new IndexDefinition("idx_notifications_claim", "notifications", "claimToken"),
+            new IndexDefinition("idx_checkins_user_event", "checkins", "userID", "eventID", "checkOutTime"),
+            new IndexDefinition("idx_event_skills_skill", "event_skills", "skillKey", "eventID"),
+            new IndexDefinition("idx_user_skills_skill", "user_skills", "skillKey", "userID")
+    };
+
+    /** The pool that backs {@link #getConnection()}; created on first use. */
+    private ConnectionPool connectionPool;
+    /** The number of rows sent per JDBC batch by the bulk insert methods. */
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    /** The number of rows fetched at a time by the streaming query methods. */
+    private int fetchSize = DEFAULT_FETCH_SIZE;
+    /** Users by userID, read through by {@link #getUserByID(String)}; cached entities are never modified. */
+    private final EntityCache<String, User> userCache = new EntityCache<>("users", USER_CACHE_SIZE, ENTITY_CACHE_TTL_MINUTES, TimeUnit.MINUTES);
+    /** Events by eventID, read through by {@link #getEventByID(String)}. */
+    private final EntityCache<String, Event> eventCache = new EntityCache<>("events", EVENT_CACHE_SIZE, ENTITY_CACHE_TTL_MINUTES, TimeUnit.MINUTES);
+    /** Organizations by orgID, read through by {@link #getOrganizationByID(String)}. */
+    private final EntityCache<String, Organization> organizationCache = new EntityCache<>("organizations", ORGANIZATION_CACHE_SIZE, ENTITY_CACHE_TTL_MINUTES, TimeUnit.MINUTES);
+    /** Actions run after each event is committed, registered with {@link #addEventListener(Consumer)}. */
+    private final List<Consumer<? super Event>> eventListeners = new CopyOnWriteArrayList<>();
+
     /**
      * Initializes the database by loading the driver and creating the necessary tables.
      */
@@ -29,29 +125,62 @@ public class VolunteerDatabase {
             Class.forName(DRIVER);
             System.out.println("Apache Derby driver loaded successfully.");
             createTables();
+            startLegacyBlobMigration();
         } catch (ClassNotFoundException e) {
             e.printStackTrace();
         }
     }
 
     /**
-     * Establishes and returns a database connection.
+     * Borrows a database connection from the connection pool.
+     * Closing the returned connection hands it back to the pool.
      * @return A Connection object to the database.
-     * @throws SQLException if a database access error occurs.
+     * @throws SQLException if a database access error occurs or no connection becomes free in time.
      */
     public Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(JDBC_URL);
+        return getConnectionPool().borrow();
+    }
+
+    /**
+     * Returns a snapshot of the connection pool's size and usage counters,
+     * including prepared statement cache hits and misses.
+     * @return The current pool statistics.
+     */
+    public ConnectionPool.Statistics getPoolStatistics() {
+        return getConnectionPool().getStatistics();
+    }
+
+    /**
+     * Returns a snapshot of the user, event and organization caches' sizes and hit rates.
+     * @return The statistics of each entity cache.
+     */
+    public List<EntityCache.Statistics> getCacheStatistics() {
+        List<EntityCache.Statistics> stats = new ArrayList<>();
+        stats.add(userCache.getStatistics());
+        stats.add(eventCache.getStatistics());
+        stats.add(organizationCache.getStatistics());
+        return stats;
+    }
+
+    private synchronized ConnectionPool getConnectionPool() {
+        if (connectionPool == null) {
+            connectionPool = new ConnectionPool(JDBC_URL, POOL_MIN_SIZE, POOL_MAX_SIZE,
+                    POOL_BORROW_TIMEOUT_MILLIS, POOL_IDLE_TIMEOUT_MILLIS, POOL_LEAK_THRESHOLD_MILLIS, STATEMENT_CACHE_SIZE);
+        }
+        return connectionPool;
     }
 
     /**
-     * Creates the database tables for User, Organization, Event, and VolunteerRecord.
+     * Creates the database tables for User, Organization, Event, and VolunteerRecord,
+     * along with the supporting tables used for lookups. Tables that already exist are skipped,
+     * so tables added in later versions are created on existing databases too.
      */
     private void createTables() {
         try (Connection conn = getConnection();
              Statement stmt = conn.createStatement()) {
 
             // Create User table
-            stmt.execute("CREATE TABLE users (" +
+            createTableIfMissing(stmt, "User", "CREATE TABLE users (" +
                     "userID VARCHAR(50) PRIMARY KEY," +
                     "firstName VARCHAR(100)," +
                     "lastName VARCHAR(100)," +
@@ -59,11 +188,13 @@ public class VolunteerDatabase {
                     "password VARCHAR(100)," +
                     "role VARCHAR(50)," +
                     "totalHours DOUBLE," +
-                    "academicSemesterHours BLOB)");
-            System.out.println("User table created.");
+                    "academicSemesterHours BLOB," +
+                    "phone VARCHAR(20))");
+            // Databases created before kiosk check-in have no phone column
+            addColumnIfMissing(stmt, "users", "phone VARCHAR(20)");
 
             // Create Organization table
-            stmt.execute("CREATE TABLE organizations (" +
+            createTableIfMissing(stmt, "Organization", "CREATE TABLE organizations (" +
                     "orgID VARCHAR(50) PRIMARY KEY," +
                     "orgName VARCHAR(200)," +
                     "contactPersonName VARCHAR(200)," +
@@ -75,10 +206,9 @@ public class VolunteerDatabase {
                     "addressCity VARCHAR(100)," +
                     "addressState VARCHAR(50)," +
                     "addressZipCode VARCHAR(20))");
-            System.out.println("Organization table created.");
 
             // Create Event table
-            stmt.execute("CREATE TABLE events (" +
+            createTableIfMissing(stmt, "Event", "CREATE TABLE events (" +
                     "eventID VARCHAR(50) PRIMARY KEY," +
                     "title VARCHAR(200)," +
                     "description VARCHAR(500)," +
@@ -95,10 +225,9 @@ public class VolunteerDatabase {
                     "orgID VARCHAR(50)," +
                     "contactInfo VARCHAR(100)," +
                     "FOREIGN KEY (orgID) REFERENCES organizations(orgID))");
-            System.out.println("Event table created.");
 
             // Create VolunteerRecord table
-            stmt.execute("CREATE TABLE records (" +
+            createTableIfMissing(stmt, "VolunteerRecord", "CREATE TABLE records (" +
                     "recordID VARCHAR(50) PRIMARY KEY," +
                     "userID VARCHAR(50)," +
                     "eventID VARCHAR(50)," +
@@ -108,15 +237,256 @@ public class VolunteerDatabase {
                     "approverID VARCHAR(50)," +
                     "FOREIGN KEY (userID) REFERENCES users(userID)," +
                     "FOREIGN KEY (eventID) REFERENCES events(eventID))");
-            System.out.println("VolunteerRecord table created.");
+
+            // Create event skills table; skillKey is the normalized skill used for lookups
+            boolean skillsCreated = createTableIfMissing(stmt, "Event skills", "CREATE TABLE event_skills (" +
+                    "eventID VARCHAR(50) NOT NULL," +
+                    "skill VARCHAR(100) NOT NULL," +
+                    "skillKey VARCHAR(100) NOT NULL," +
+                    "PRIMARY KEY (eventID, skillKey)," +
+                    "FOREIGN KEY (eventID) REFERENCES events(eventID))");
+            if (skillsCreated) {
+                backfillEventSkills(conn);
+            }
+
+            // Create user skills table; the inverted index from skill to interested volunteers
+            createTableIfMissing(stmt, "User skill", "CREATE TABLE user_skills (" +
+                    "userID VARCHAR(50) NOT NULL," +
+                    "skill VARCHAR(100) NOT NULL," +
+                    "skillKey VARCHAR(100) NOT NULL," +
+                    "PRIMARY KEY (userID, skillKey)," +
+                    "FOREIGN KEY (userID) REFERENCES users(userID))");
+
+            // Create hour rollup table; approved hours per user, organization and semester
+            boolean rollupCreated = createTableIfMissing(stmt, "Hour rollup", "CREATE TABLE hours_rollup (" +
+                    "userID VARCHAR(50) NOT NULL," +
+                    "orgID VARCHAR(50) NOT NULL," +
+                    "semester VARCHAR(20) NOT NULL," +
+                    "hours DOUBLE NOT NULL," +
+                    "PRIMARY KEY (userID, orgID, semester)," +
+                    "FOREIGN KEY (userID) REFERENCES users(userID))");
+            if (rollupCreated) {
+                rebuildHourRollups(conn);
+            }
+
+            // Create event registrations table; one row per volunteer holding a slot
+            createTableIfMissing(stmt, "Event registration", "CREATE TABLE event_registrations (" +
+                    "eventID VARCHAR(50) NOT NULL," +
+                    "userID VARCHAR(50) NOT NULL," +
+                    "registeredAt TIMESTAMP NOT NULL," +
+                    "PRIMARY KEY (eventID, userID)," +
+                    "FOREIGN KEY (eventID) REFERENCES events(eventID)," +
+                    "FOREIGN KEY (userID) REFERENCES users(userID))");
+
+            // Create notifications table; it doubles as the delivery outbox
+            createTableIfMissing(stmt, "Notification", "CREATE TABLE notifications (" +
+                    "notificationID VARCHAR(50) PRIMARY KEY," +
+                    "userID VARCHAR(50) NOT NULL," +
+                    "message VARCHAR(1000)," +
+                    "type VARCHAR(50)," +
+                    "createdAt TIMESTAMP NOT NULL," +
+                    "readStatus BOOLEAN NOT NULL," +
+                    "deliveryStatus VARCHAR(20) NOT NULL," +
+                    "attempts INT NOT NULL," +
+                    "nextAttemptAt TIMESTAMP," +
+                    "claimToken VARCHAR(50)," +
+                    "claimedAt TIMESTAMP," +
+                    "deliveredAt TIMESTAMP," +
+                    "lastError VARCHAR(500)," +
+                    "FOREIGN KEY (userID) REFERENCES users(userID))");
+
+            // Create unread notification counter table; one row per user with a notification
+            boolean unreadCreated = createTableIfMissing(stmt, "Unread count", "CREATE TABLE unread_counts (" +
+                    "userID VARCHAR(50) PRIMARY KEY," +
+                    "unread INT NOT NULL," +
+                    "FOREIGN KEY (userID) REFERENCES users(userID))");
+            if (unreadCreated) {
+                rebuildUnreadCounts(conn);
+            }
+
+            // Create kiosk check-in table; checkOutTime and recordID stay null while a volunteer is on site.
+            // openFlag is 'Y' until check-out and null after, so the unique constraint allows one
+            // open check-in per volunteer and event while leaving closed ones unconstrained.
+            createTableIfMissing(stmt, "Check-in", "CREATE TABLE checkins (" +
+                    "checkinID VARCHAR(50) PRIMARY KEY," +
+                    "userID VARCHAR(50) NOT NULL," +
+                    "eventID VARCHAR(50) NOT NULL," +
+                    "checkInTime TIMESTAMP NOT NULL," +
+                    "checkOutTime TIMESTAMP," +
+                    "recordID VARCHAR(50)," +
+                    "openFlag CHAR(1)," +
+                    "FOREIGN KEY (userID) REFERENCES users(userID)," +
+                    "FOREIGN KEY (eventID) REFERENCES events(eventID)," +
+                    "FOREIGN KEY (recordID) REFERENCES records(recordID))");
+            // Databases created before the constraint have no openFlag column
+            addColumnIfMissing(stmt, "checkins", "openFlag CHAR(1)");
+            addConstraintIfMissing(stmt, "checkins", "uq_checkins_open UNIQUE (userID, eventID, openFlag)");
+
+            createIndexes(stmt);
 
         } catch (SQLException e) {
-            if (!e.getSQLState().equals("X0Y32")) {
-                e.printStackTrace();
-            } else {
-                System.out.println("Tables already exist, skipping creation.");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Creates every index in {@link #INDEXES} that does not exist yet.
+     */
+    private void createIndexes(Statement stmt) throws SQLException {
+        for (IndexDefinition index : INDEXES) {
+            try {
+                stmt.execute(index.toDDL());
+                System.out.println("Index " + index.name + " created.");
+            } catch (SQLException e) {
+                if (!"X0Y32".equals(e.getSQLState())) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a column to a table, or does nothing if the column already exists.
+     */
+    private void addColumnIfMissing(Statement stmt, String table, String columnDefinition) throws SQLException {
+        try {
+            stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + columnDefinition);
+            System.out.println("Column " + columnDefinition + " added to " + table + ".");
+        } catch (SQLException e) {
+            if (!"X0Y32".equals(e.getSQLState())) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Adds a named constraint to a table, or does nothing if the constraint already exists.
+     */
+    private void addConstraintIfMissing(Statement stmt, String table, String constraintDefinition) throws SQLException {
+        try {
+            stmt.execute("ALTER TABLE " + table + " ADD CONSTRAINT " + constraintDefinition);
+            System.out.println("Constraint " + constraintDefinition + " added to " + table + ".");
+        } catch (SQLException e) {
+            if (!"X0Y32".equals(e.getSQLState())) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Creates a table, or does nothing if it already exists.
+     * @return true if the table was created, false if it already existed.
+     */
+    private boolean createTableIfMissing(Statement stmt, String label, String ddl) throws SQLException {
+        try {
+            stmt.execute(ddl);
+            System.out.println(label + " table created.");
+            return true;
+        } catch (SQLException e) {
+            if (!"X0Y32".equals(e.getSQLState())) {
+                throw e;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Fills a newly created event_skills table from the skills stored on existing events.
+     */
+    private void backfillEventSkills(Connection conn) throws SQLException {
+        List<Event> events = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM events")) {
+            while (rs.next()) {
+                events.add(mapEvent(rs));
+            }
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+        conn.setAutoCommit(false);
+        try {
+            writeEventSkills(conn, events);
+            conn.commit();
+            System.out.println("Indexed skills for " + events.size() + " existing events.");
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Starts a background thread that rewrites binary columns still stored with Java
+     * serialization into the compact {@link BlobCodec} format. Reads handle both formats,
+     * so the application is fully usable while the migration runs.
+     */
+    private void startLegacyBlobMigration() {
+        Thread migration = new Thread(() -> {
+            try {
+                int users = migrateLegacyBlobs("users", "userID", "academicSemesterHours", true);
+                int events = migrateLegacyBlobs("events", "eventID", "requiredSkills", false);
+                if (users + events > 0) {
+                    System.out.println("Migrated " + users + " user and " + events + " event values to the compact binary format.");
+                }
+            } catch (SQLException e) {
+                System.err.println("Binary column migration stopped: " + e.getMessage());
+            }
+        }, "blob-migration");
+        migration.setDaemon(true);
+        migration.start();
+    }
+
+    /**
+     * Re-encodes every legacy value in one binary column, committing every {@link #batchSize} rows.
+     * @return The number of rows rewritten.
+     */
+    private int migrateLegacyBlobs(String table, String idColumn, String blobColumn, boolean semesterHours) throws SQLException {
+        String select = "SELECT " + idColumn + ", " + blobColumn + " FROM " + table;
+        String update = "UPDATE " + table + " SET " + blobColumn + " = ? WHERE " + idColumn + " = ?";
+        int migrated = 0;
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, ResultSet.HOLD_CURSORS_OVER_COMMIT);
+                 ResultSet rs = stmt.executeQuery(select);
+                 PreparedStatement pstmt = conn.prepareStatement(update)) {
+                int pending = 0;
+                while (rs.next()) {
+                    byte[] data = rs.getBytes(2);
+                    if (!BlobCodec.isLegacy(data)) {
+                        continue;
+                    }
+                    String id = rs.getString(1);
+                    try {
+                        byte[] compact = semesterHours
+                                ? BlobCodec.encodeSemesterHours(BlobCodec.decodeSemesterHours(data))
+                                : BlobCodec.encodeStringList(BlobCodec.decodeStringList(data));
+                        pstmt.setBytes(1, compact);
+                        pstmt.setString(2, id);
+                        pstmt.addBatch();
+                        pending++;
+                    } catch (IOException e) {
+                        System.err.println("Skipping unreadable " + blobColumn + " for " + id + ": " + e.getMessage());
+                    }
+                    if (pending == batchSize) {
+                        pstmt.executeBatch();
+                        conn.commit();
+                        migrated += pending;
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    pstmt.executeBatch();
+                    conn.commit();
+                    migrated += pending;
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
         }
+        return migrated;
     }
 
     /**
@@ -125,27 +495,21 @@ public class VolunteerDatabase {
      * @throws SQLException if a database access error occurs.
      */
     public void insertUser(User user) throws SQLException {
-        String sql = "INSERT INTO users (userID, firstName, lastName, email, password, role, totalHours, academicSemesterHours) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setString(1, user.getUserID());
-            pstmt.setString(2, user.getFirstName());
-            pstmt.setString(3, user.getLastName());
-            pstmt.setString(4, user.getEmail());
-            pstmt.setString(5, user.getPassword());
-            pstmt.setString(6, user.getRole().name());
-            pstmt.setDouble(7, user.getTotalHours());
-
-            try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
-                 ObjectOutputStream oos = new ObjectOutputStream(bos)) {
-                oos.writeObject(user.getAcademicSemesterHours());
-                pstmt.setBytes(8, bos.toByteArray());
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_USER_SQL)) {
+                bindUser(pstmt, user);
+                pstmt.executeUpdate();
+                writeUserSkills(conn, Collections.singletonList(user));
+                conn.commit();
+            } catch (Exception e) {
+                conn.rollback();
+                throw e;
             }
-
-            pstmt.executeUpdate();
         } catch (Exception e) {
             throw new SQLException("Error inserting user: " + e.getMessage(), e);
+        } finally {
+            userCache.invalidate(user.getUserID());
         }
     }
 
@@ -155,23 +519,13 @@ public class VolunteerDatabase {
      * @throws SQLException if a database access error occurs.
      */
     public void insertOrganization(Organization org) throws SQLException {
-        String sql = "INSERT INTO organizations (orgID, orgName, contactPersonName, contactEmail, contactPhone, password, description, addressStreet, addressCity, addressState, addressZipCode) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setString(1, org.getOrgID());
-            pstmt.setString(2, org.getOrgName());
-            pstmt.setString(3, org.getContactPersonName());
-            pstmt.setString(4, org.getContactEmail());
-            pstmt.setString(5, org.getContactPhone());
-            pstmt.setString(6, org.getPassword());
-            pstmt.setString(7, org.getDescription());
-            pstmt.setString(8, org.getAddress().getStreet());
-            pstmt.setString(9, org.getAddress().getCity());
-            pstmt.setString(10, org.getAddress().getState());
-            pstmt.setString(11, org.getAddress().getZipCode());
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_ORGANIZATION_SQL)) {
 
+            bindOrganization(pstmt, org);
             pstmt.executeUpdate();
+        } finally {
+            organizationCache.invalidate(org.getOrgID());
         }
     }
 
@@ -181,269 +535,2361 @@ public class VolunteerDatabase {
      * @throws SQLException if a database access error occurs.
      */
     public void insertEvent(Event event) throws SQLException {
-        String sql = "INSERT INTO events (eventID, title, description, date, startTime, endTime, locationStreet, locationCity, locationState, locationZipCode, maxVolunteers, currentVolunteers, requiredSkills, orgID, contactInfo) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setString(1, event.getEventID());
-            pstmt.setString(2, event.getTitle());
-            pstmt.setString(3, event.getDescription());
-            pstmt.setDate(4, new java.sql.Date(event.getDate().getTime()));
-            pstmt.setTime(5, event.getStartTime());
-            pstmt.setTime(6, event.getEndTime());
-            pstmt.setString(7, event.getLocation().getStreet());
-            pstmt.setString(8, event.getLocation().getCity());
-            pstmt.setString(9, event.getLocation().getState());
-            pstmt.setString(10, event.getLocation().getZipCode());
-            pstmt.setInt(11, event.getMaxVolunteers());
-            pstmt.setInt(12, event.getCurrentVolunteers());
-
-            try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
-                 ObjectOutputStream oos = new ObjectOutputStream(bos)) {
-                oos.writeObject(event.getRequiredSkills());
-                pstmt.setBytes(13, bos.toByteArray());
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_EVENT_SQL)) {
+                bindEvent(pstmt, event);
+                pstmt.executeUpdate();
+                writeEventSkills(conn, Collections.singletonList(event));
+                conn.commit();
+            } catch (Exception e) {
+                conn.rollback();
+                throw e;
             }
-
-            pstmt.setString(14, event.getOrgID());
-            pstmt.setString(15, event.getContactInfo());
-
-            pstmt.executeUpdate();
         } catch (Exception e) {
             throw new SQLException("Error inserting event: " + e.getMessage(), e);
+        } finally {
+            eventCache.invalidate(event.getEventID());
         }
+        fireEventInserted(event);
     }
 
     /**
-     * Retrieves all users from the database.
-     * @return A list of all User objects.
-     * @throws SQLException if a database access error occurs.
+     * Registers an action to run after each event is inserted, for example to keep an
+     * in-memory search index current. Listeners run on the inserting thread after the
+     * transaction commits; an exception thrown by one is logged and does not affect the insert.
+     * @param listener The action to run with each new event.
      */
-    public List<User> getAllUsers() throws SQLException {
-        List<User> userList = new ArrayList<>();
-        String sql = "SELECT * FROM users";
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+    public void addEventListener(Consumer<? super Event> listener) {
+        eventListeners.add(listener);
+    }
 
-            while (rs.next()) {
-                String userID = rs.getString("userID");
-                String firstName = rs.getString("firstName");
-                String lastName = rs.getString("lastName");
-                String email = rs.getString("email");
-                String password = rs.getString("password");
-                User.Role role = User.Role.valueOf(rs.getString("role"));
-
-                Map<String, Double> academicSemesterHours = new HashMap<>();
-                byte[] academicHoursBytes = rs.getBytes("academicSemesterHours");
-                if (academicHoursBytes != null) {
-                    try (ByteArrayInputStream bis = new ByteArrayInputStream(academicHoursBytes);
-                         ObjectInputStream ois = new ObjectInputStream(bis)) {
-                        academicSemesterHours = (Map<String, Double>) ois.readObject();
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                    }
-                }
+    /**
+     * Unregisters an action added with {@link #addEventListener(Consumer)}.
+     * @param listener The action to remove.
+     */
+    public void removeEventListener(Consumer<? super Event> listener) {
+        eventListeners.remove(listener);
+    }
 
-                User user = new User(userID, firstName, lastName, email, password, role);
-                userList.add(user);
+    private void fireEventInserted(Event event) {
+        for (Consumer<? super Event> listener : eventListeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                System.err.println("Event listener failed for event " + event.getEventID() + ": " + e);
             }
         }
-        return userList;
     }
 
     /**
-     * Retrieves all organizations from the database.
-     * @return A list of all Organization objects.
+     * Inserts a new volunteer record into the database.
+     * @param record The VolunteerRecord object to insert.
      * @throws SQLException if a database access error occurs.
      */
-    public List<Organization> getAllOrganizations() throws SQLException {
-        List<Organization> orgList = new ArrayList<>();
-        String sql = "SELECT * FROM organizations";
+    public void insertVolunteerRecord(VolunteerRecord record) throws SQLException {
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_RECORD_SQL)) {
+                bindVolunteerRecord(pstmt, record);
+                pstmt.executeUpdate();
+                rollUpApprovedHours(conn, Collections.singletonList(record));
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } finally {
+            userCache.invalidate(record.getUserID());
+        }
+    }
+
+    /**
+     * Adds a notification to the outbox for background delivery.
+     * @param notification The Notification object to queue.
+     * @throws SQLException if a database access error occurs.
+     */
+    public void insertNotification(Notification notification) throws SQLException {
         try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_NOTIFICATION_SQL)) {
 
-            while (rs.next()) {
-                String orgID = rs.getString("orgID");
-                String orgName = rs.getString("orgName");
-                String contactPersonName = rs.getString("contactPersonName");
-                String contactEmail = rs.getString("contactEmail");
-                String contactPhone = rs.getString("contactPhone");
-                String password = rs.getString("password");
-                String description = rs.getString("description");
-                String street = rs.getString("addressStreet");
-                String city = rs.getString("addressCity");
-                String state = rs.getString("addressState");
-                String zipCode = rs.getString("addressZipCode");
-                Address address = new Address(street, city, state, zipCode);
-
-                Organization org = new Organization(orgID, orgName, contactPersonName, contactEmail, contactPhone, password, description, address);
-                orgList.add(org);
+            conn.setAutoCommit(false);
+            try {
+                bindNotification(pstmt, notification);
+                pstmt.executeUpdate();
+                countUnread(conn, Collections.singletonList(notification));
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
         }
-        return orgList;
     }
 
     /**
-     * Retrieves all events from the database.
-     * @return A list of all Event objects.
+     * Adds many notifications to the outbox in a single transaction using JDBC batching.
+     * @param notifications The Notification objects to queue.
+     * @return A summary of inserted and failed rows.
+     * @throws SQLException if the transaction cannot be completed.
+     */
+    public BatchInsertResult insertNotifications(Collection<Notification> notifications) throws SQLException {
+        return insertBatch(INSERT_NOTIFICATION_SQL, notifications, this::bindNotification, Notification::getNotificationID, this::countUnread);
+    }
+
+    /**
+     * Gets one page of a user's inbox, newest first. Pages are keyed on the last notification
+     * of the previous page rather than an offset, so each page costs the same however deep
+     * the user scrolls. The full inbox is read in order from idx_notifications_user_time and
+     * the unread one from idx_notifications_inbox, so neither is sorted per page.
+     * @param userID The ID of the user.
+     * @param after The last notification of the previous page, or null for the first page.
+     * @param limit The maximum number of notifications to return.
+     * @param unreadOnly true to list only unread notifications.
+     * @return The notifications on the page.
      * @throws SQLException if a database access error occurs.
      */
-    public List<Event> getAllEvents() throws SQLException {
-        List<Event> eventList = new ArrayList<>();
-        String sql = "SELECT * FROM events";
+    public List<Notification> getInbox(String userID, Notification after, int limit, boolean unreadOnly) throws SQLException {
+        List<Notification> page = new ArrayList<>(Math.min(Math.max(limit, 0), 1000));
+        if (limit <= 0) {
+            return page;
+        }
+        StringBuilder sql = new StringBuilder("SELECT * FROM notifications WHERE userID = ?");
+        if (unreadOnly) {
+            sql.append(" AND readStatus = FALSE");
+        }
+        if (after != null) {
+            sql.append(" AND (createdAt < ? OR (createdAt = ? AND notificationID < ?))");
+        }
+        sql.append(" ORDER BY createdAt DESC, notificationID DESC FETCH FIRST ? ROWS ONLY");
         try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                String eventID = rs.getString("eventID");
-                String title = rs.getString("title");
-                String description = rs.getString("description");
-                Date date = rs.getDate("date");
-                Time startTime = rs.getTime("startTime");
-                Time endTime = rs.getTime("endTime");
-                String street = rs.getString("locationStreet");
-                String city = rs.getString("locationCity");
-                String state = rs.getString("locationState");
-                String zipCode = rs.getString("locationZipCode");
-                Address location = new Address(street, city, state, zipCode);
-                int maxVolunteers = rs.getInt("maxVolunteers");
-                int currentVolunteers = rs.getInt("currentVolunteers");
-                List<String> requiredSkills = new ArrayList<>();
-
-                byte[] skillsBytes = rs.getBytes("requiredSkills");
-                if (skillsBytes != null) {
-                    try (ByteArrayInputStream bis = new ByteArrayInputStream(skillsBytes);
-                         ObjectInputStream ois = new ObjectInputStream(bis)) {
-                        requiredSkills = (List<String>) ois.readObject();
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                    }
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            int param = 1;
+            pstmt.setString(param++, userID);
+            if (after != null) {
+                Timestamp createdAt = new Timestamp(after.getTimestamp().getTime());
+                pstmt.setTimestamp(param++, createdAt);
+                pstmt.setTimestamp(param++, createdAt);
+                pstmt.setString(param++, after.getNotificationID());
+            }
+            pstmt.setInt(param, limit);
+            pstmt.setFetchSize(Math.min(limit, fetchSize));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    page.add(mapNotification(rs));
                 }
-                String orgID = rs.getString("orgID");
-                String contactInfo = rs.getString("contactInfo");
-
-                Event event = new Event(eventID, title, description, date, startTime, endTime, location, maxVolunteers, requiredSkills, orgID, contactInfo);
-                eventList.add(event);
             }
         }
-        return eventList;
+        return page;
     }
 
     /**
-     * Retrieves an existing user from the database by their ID.
-     * @param userID The ID of the user to retrieve.
-     * @return The User object, or null if not found.
+     * Gets the number of unread notifications for a user from the maintained counter.
+     * @param userID The ID of the user.
+     * @return The unread count.
      * @throws SQLException if a database access error occurs.
      */
-    public User getUserByID(String userID) throws SQLException {
-        String sql = "SELECT * FROM users WHERE userID = ?";
+    public int getUnreadCount(String userID) throws SQLException {
         try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
+             PreparedStatement pstmt = conn.prepareStatement("SELECT unread FROM unread_counts WHERE userID = ?")) {
             pstmt.setString(1, userID);
             try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    String firstName = rs.getString("firstName");
-                    String lastName = rs.getString("lastName");
-                    String email = rs.getString("email");
-                    String password = rs.getString("password");
-                    User.Role role = User.Role.valueOf(rs.getString("role"));
-
-                    Map<String, Double> academicSemesterHours = new HashMap<>();
-                    byte[] academicHoursBytes = rs.getBytes("academicSemesterHours");
-                    if (academicHoursBytes != null) {
-                        try (ByteArrayInputStream bis = new ByteArrayInputStream(academicHoursBytes);
-                             ObjectInputStream ois = new ObjectInputStream(bis)) {
-                            academicSemesterHours = (Map<String, Double>) ois.readObject();
-                        } catch (Exception e) {
-                            e.printStackTrace();
-                        }
-                    }
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
 
-                    return new User(userID, firstName, lastName, email, password, role);
-                }
+    /**
+     * Marks one of a user's notifications as read.
+     * @param userID The ID of the user who owns the notification.
+     * @param notificationID The ID of the notification.
+     * @return true if the notification was unread, false if it was already read or does not exist.
+     * @throws SQLException if a database access error occurs.
+     */
+    public boolean markNotificationRead(String userID, String notificationID) throws SQLException {
+        String sql = "UPDATE notifications SET readStatus = TRUE WHERE notificationID = ? AND userID = ? AND readStatus = FALSE";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            conn.setAutoCommit(false);
+            try {
+                pstmt.setString(1, notificationID);
+                pstmt.setString(2, userID);
+                int changed = pstmt.executeUpdate();
+                addUnread(conn, userID, -changed);
+                conn.commit();
+                return changed > 0;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
         }
-        return null;
     }
 
     /**
-     * Retrieves all volunteer records from the database.
-     * @return A list of all VolunteerRecord objects.
+     * Marks every unread notification of a user as read with a single update.
+     * @param userID The ID of the user.
+     * @return The number of notifications that were unread.
      * @throws SQLException if a database access error occurs.
      */
-    public List<VolunteerRecord> getAllVolunteerRecords() throws SQLException {
-        List<VolunteerRecord> recordList = new ArrayList<>();
-        String sql = "SELECT * FROM records";
+    public int markAllRead(String userID) throws SQLException {
+        String sql = "UPDATE notifications SET readStatus = TRUE WHERE userID = ? AND readStatus = FALSE";
         try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                String recordID = rs.getString("recordID");
-                String userID = rs.getString("userID");
-                String eventID = rs.getString("eventID");
-                double hoursSubmitted = rs.getDouble("hoursSubmitted");
-                Date submissionDate = rs.getDate("submissionDate");
-                VolunteerRecord.Status status = VolunteerRecord.Status.valueOf(rs.getString("status"));
-                String approverID = rs.getString("approverID");
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-                VolunteerRecord record = new VolunteerRecord(recordID, userID, eventID, hoursSubmitted);
-                // The constructor needs to be updated to take all these parameters
-                // For now, you can use setters to populate the rest of the fields.
-                // The constructor below is an example of what would be needed
-                // public VolunteerRecord(String recordID, String userID, String eventID, double hoursSubmitted, Date submissionDate, VolunteerRecord.Status status, String approverID) { ... }
+            conn.setAutoCommit(false);
+            try {
+                pstmt.setString(1, userID);
+                int changed = pstmt.executeUpdate();
+                addUnread(conn, userID, -changed);
+                conn.commit();
+                return changed;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
 
-                // For now, we will use setters to set the values
-                record.updateStatus(status, approverID);
-                recordList.add(record);
+    /**
+     * Recomputes every user's unread notification count from the notifications table.
+     * @return The number of users with unread notifications.
+     * @throws SQLException if a database access error occurs.
+     */
+    public int rebuildUnreadCounts() throws SQLException {
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int rows = rebuildUnreadCounts(conn);
+                conn.commit();
+                return rows;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
         }
-        return recordList;
     }
 
+    private int rebuildUnreadCounts(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM unread_counts");
+            return stmt.executeUpdate("INSERT INTO unread_counts (userID, unread) " +
+                    "SELECT userID, COUNT(*) FROM notifications WHERE readStatus = FALSE GROUP BY userID");
+        }
+    }
 
     /**
-     * Updates an existing user's data in the database.
-     * @param user The User object with updated information.
+     * Adds newly inserted unread notifications to their users' counters, one update per user.
+     */
+    private void countUnread(Connection conn, List<Notification> inserted) throws SQLException {
+        Map<String, Integer> unreadByUser = new HashMap<>();
+        for (Notification notification : inserted) {
+            if (!notification.isReadStatus()) {
+                unreadByUser.merge(notification.getUserID(), 1, Integer::sum);
+            }
+        }
+        addUnread(conn, unreadByUser);
+    }
+
+    /**
+     * Adjusts many users' unread counters with one batched update. Users without a counter
+     * row yet fall back to {@link #addUnread(Connection, String, int)}, which creates it.
+     */
+    private void addUnread(Connection conn, Map<String, Integer> deltas) throws SQLException {
+        List<String> missing = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement("UPDATE unread_counts SET unread = unread + ? WHERE userID = ?")) {
+            List<String> queued = new ArrayList<>(Math.min(deltas.size(), batchSize));
+            for (Map.Entry<String, Integer> entry : deltas.entrySet()) {
+                pstmt.setInt(1, entry.getValue());
+                pstmt.setString(2, entry.getKey());
+                pstmt.addBatch();
+                queued.add(entry.getKey());
+                if (queued.size() == batchSize) {
+                    collectMissing(pstmt.executeBatch(), queued, missing);
+                }
+            }
+            if (!queued.isEmpty()) {
+                collectMissing(pstmt.executeBatch(), queued, missing);
+            }
+        }
+        for (String userID : missing) {
+            addUnread(conn, userID, deltas.get(userID));
+        }
+    }
+
+    private static void collectMissing(int[] counts, List<String> queued, List<String> missing) {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                missing.add(queued.get(i));
+            }
+        }
+        queued.clear();
+    }
+
+    private void addUnread(Connection conn, String userID, int delta) throws SQLException {
+        if (delta == 0) {
+            return;
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement("UPDATE unread_counts SET unread = unread + ? WHERE userID = ?")) {
+            pstmt.setInt(1, delta);
+            pstmt.setString(2, userID);
+            if (pstmt.executeUpdate() == 0) {
+                try (PreparedStatement insert = conn.prepareStatement("INSERT INTO unread_counts (userID, unread) VALUES (?, ?)")) {
+                    insert.setString(1, userID);
+                    insert.setInt(2, Math.max(0, delta));
+                    insert.executeUpdate();
+                } catch (SQLException e) {
+                    if (!"23505".equals(e.getSQLState())) {
+                        throw e;
+                    }
+                    // Another transaction created the row first
+                    pstmt.executeUpdate();
+                }
+            }
+        }
+    }
+
+    /**
+     * Claims up to limit notifications that are due for delivery, oldest first. Claimed rows are
+     * tagged with a fresh claim token by a conditional update, so two dispatchers never claim
+     * the same notification.
+     * @param limit The maximum number of notifications to claim.
+     * @return The claimed notifications.
      * @throws SQLException if a database access error occurs.
      */
-    public void updateUser(User user) throws SQLException {
-        String sql = "UPDATE users SET firstName = ?, lastName = ?, email = ?, password = ?, role = ? WHERE userID = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    public List<Notification> claimNotifications(int limit) throws SQLException {
+        String claimToken = UUID.randomUUID().toString();
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        try (Connection conn = getConnection()) {
+            List<String> due = new ArrayList<>(limit);
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "SELECT notificationID FROM notifications WHERE deliveryStatus = '" + OUTBOX_PENDING + "' " +
+                    "AND nextAttemptAt <= ? ORDER BY nextAttemptAt FETCH FIRST ? ROWS ONLY")) {
+                pstmt.setTimestamp(1, now);
+                pstmt.setInt(2, limit);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        due.add(rs.getString(1));
+                    }
+                }
+            }
+            if (due.isEmpty()) {
+                return new ArrayList<>();
+            }
 
-            pstmt.setString(1, user.getFirstName());
-            pstmt.setString(2, user.getLastName());
-            pstmt.setString(3, user.getEmail());
-            pstmt.setString(4, user.getPassword());
-            pstmt.setString(5, user.getRole().name());
-            pstmt.setString(6, user.getUserID());
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "UPDATE notifications SET deliveryStatus = '" + OUTBOX_CLAIMED + "', claimToken = ?, claimedAt = ? " +
+                    "WHERE deliveryStatus = '" + OUTBOX_PENDING + "' AND notificationID IN (" + placeholders(due.size()) + ")")) {
+                pstmt.setString(1, claimToken);
+                pstmt.setTimestamp(2, now);
+                for (int i = 0; i < due.size(); i++) {
+                    pstmt.setString(i + 3, due.get(i));
+                }
+                if (pstmt.executeUpdate() == 0) {
+                    return new ArrayList<>();
+                }
+            }
 
-            pstmt.executeUpdate();
+            List<Notification> claimed = new ArrayList<>(due.size());
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "SELECT * FROM notifications WHERE claimToken = ? AND deliveryStatus = '" + OUTBOX_CLAIMED + "' ORDER BY nextAttemptAt")) {
+                pstmt.setString(1, claimToken);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        Notification notification = mapNotification(rs);
+                        notification.setClaimToken(claimToken);
+                        claimed.add(notification);
+                    }
+                }
+            }
+            return claimed;
         }
     }
 
     /**
-     * Deletes a user from the database by their userID.
-     * @param userID The ID of the user to delete.
+     * Marks claimed notifications as delivered, in one batch. A notification whose claim has
+     * since been released and taken by another dispatcher is left to its new owner.
+     * @param notifications The delivered notifications, as returned by {@link #claimNotifications(int)}.
      * @throws SQLException if a database access error occurs.
      */
-    public void deleteUser(String userID) throws SQLException {
-        String sql = "DELETE FROM users WHERE userID = ?";
+    public void markNotificationsDelivered(Collection<Notification> notifications) throws SQLException {
+        if (notifications.isEmpty()) {
+            return;
+        }
         try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(
+                     "UPDATE notifications SET deliveryStatus = '" + OUTBOX_DELIVERED + "', deliveredAt = ?, claimToken = NULL " +
+                     "WHERE notificationID = ? AND claimToken = ?")) {
+            conn.setAutoCommit(false);
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            for (Notification notification : notifications) {
+                pstmt.setTimestamp(1, now);
+                pstmt.setString(2, notification.getNotificationID());
+                pstmt.setString(3, notification.getClaimToken());
+                pstmt.addBatch();
+            }
+            try {
+                pstmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
 
-            pstmt.setString(1, userID);
-            pstmt.executeUpdate();
+    /**
+     * Records a failed delivery attempt. The notification is retried at nextAttempt, or
+     * given up on if nextAttempt is null. Nothing is recorded if the claim has since been
+     * released and taken by another dispatcher.
+     * @param notification The notification, as returned by {@link #claimNotifications(int)}.
+     * @param error A description of the failure.
+     * @param nextAttempt When to retry, or null to stop retrying.
+     * @return true if the failure was recorded, false if the notification is no longer held by this claim.
+     * @throws SQLException if a database access error occurs.
+     */
+    public boolean markNotificationFailed(Notification notification, String error, Date nextAttempt) throws SQLException {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                     "UPDATE notifications SET deliveryStatus = ?, attempts = attempts + 1, nextAttemptAt = ?, " +
+                     "lastError = ?, claimToken = NULL WHERE notificationID = ? AND claimToken = ?")) {
+            pstmt.setString(1, nextAttempt == null ? OUTBOX_FAILED : OUTBOX_PENDING);
+            pstmt.setTimestamp(2, nextAttempt == null ? null : new Timestamp(nextAttempt.getTime()));
+            pstmt.setString(3, error == null || error.length() <= 500 ? error : error.substring(0, 500));
+            pstmt.setString(4, notification.getNotificationID());
+            pstmt.setString(5, notification.getClaimToken());
+            return pstmt.executeUpdate() > 0;
         }
     }
 
     /**
-     * Closes the database connection gracefully.
+     * Returns notifications claimed before the given time to the queue, for example
+     * after a dispatcher stopped without finishing its batch.
+     * @param claimedBefore Claims older than this are released.
+     * @return The number of notifications released.
+     * @throws SQLException if a database access error occurs.
      */
-    public void shutdown() {
+    public int releaseStaleNotificationClaims(Date claimedBefore) throws SQLException {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                     "UPDATE notifications SET deliveryStatus = '" + OUTBOX_PENDING + "', claimToken = NULL " +
+                     "WHERE deliveryStatus = '" + OUTBOX_CLAIMED + "' AND claimedAt < ?")) {
+            pstmt.setTimestamp(1, new Timestamp(claimedBefore.getTime()));
+            return pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Counts the notifications waiting for delivery, including those being retried or
+     * currently claimed.
+     * @return The outbox queue depth.
+     * @throws SQLException if a database access error occurs.
+     */
+    public int getNotificationQueueDepth() throws SQLException {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                     "SELECT COUNT(*) FROM notifications WHERE deliveryStatus IN ('" + OUTBOX_PENDING + "', '" + OUTBOX_CLAIMED + "')");
+             ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Changes the approval status of a volunteer record. When the record moves to or from
+     * APPROVED, its hours are added to or taken from the user's hour rollup and total hours
+     * in the same transaction.
+     * @param recordID The ID of the record.
+     * @param newStatus The new status.
+     * @param approverID The ID of the user making the change.
+     * @return true if the record was updated, false if it does not exist.
+     * @throws SQLException if a database access error occurs.
+     */
+    public boolean updateRecordStatus(String recordID, VolunteerRecord.Status newStatus, String approverID) throws SQLException {
+        String userID = null;
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                // The status update is conditional on the status read, so a concurrent change
+                // is detected and retried instead of being rolled up twice.
+                for (int attempt = 0; attempt < 3; attempt++) {
+                    RolledUpRecord record = findRolledUpRecord(conn, recordID);
+                    if (record == null) {
+                        conn.rollback();
+                        return false;
+                    }
+                    userID = record.userID;
+                    try (PreparedStatement pstmt = conn.prepareStatement(
+                            "UPDATE records SET status = ?, approverID = ? WHERE recordID = ? AND status = ?")) {
+                        pstmt.setString(1, newStatus.name());
+                        pstmt.setString(2, approverID);
+                        pstmt.setString(3, recordID);
+                        pstmt.setString(4, record.status.name());
+                        if (pstmt.executeUpdate() == 0) {
+                            conn.rollback();
+                            continue;
+                        }
+                    }
+                    double delta = approvedHours(newStatus, record.hours) - approvedHours(record.status, record.hours);
+                    if (delta != 0.0) {
+                        addRolledUpHours(conn, record.userID, record.orgID, semesterOf(record.submissionDate), delta);
+                    }
+                    conn.commit();
+                    return true;
+                }
+                throw new SQLException("Record " + recordID + " kept changing while its status was being updated.");
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } finally {
+            if (userID != null) {
+                userCache.invalidate(userID);
+            }
+        }
+    }
+
+    /**
+     * Approves or rejects many pending records by ID in one transaction. Records that do not
+     * exist or are no longer pending are skipped, so a list can be submitted twice safely.
+     * Approved hours are added to the hour rollups and users' totals in the same transaction.
+     * @param recordIDs The IDs of the records.
+     * @param orgID Only change records for this organization's events, or null for any organization.
+     * @param newStatus The new status, APPROVED or REJECTED.
+     * @param approverID The ID of the user making the change.
+     * @return The number of records requested, updated and skipped, and the hours approved.
+     * @throws SQLException if the transaction cannot be completed; no record is changed.
+     * @throws IllegalArgumentException if newStatus is PENDING.
+     */
+    public BulkStatusResult updateRecordStatuses(Collection<String> recordIDs, String orgID,
+                                                 VolunteerRecord.Status newStatus, String approverID) throws SQLException {
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(recordIDs));
+        BulkStatusResult result = new BulkStatusResult(checkDecision(newStatus));
+        result.addRequested(ids.size());
+        String sql = PENDING_ROLLUP_SQL + (orgID != null ? " AND e.orgID = ?" : "") + " AND r.recordID IN (";
+        Map<String, RolledUpRecord> pending = new LinkedHashMap<>();
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                for (int start = 0; start < ids.size(); start += MAX_IN_LIST) {
+                    List<String> chunk = ids.subList(start, Math.min(ids.size(), start + MAX_IN_LIST));
+                    try (PreparedStatement pstmt = conn.prepareStatement(sql + placeholders(chunk.size()) + ")")) {
+                        int param = 1;
+                        if (orgID != null) {
+                            pstmt.setString(param++, orgID);
+                        }
+                        for (String recordID : chunk) {
+                            pstmt.setString(param++, recordID);
+                        }
+                        readPendingRecords(pstmt, pending);
+                    }
+                }
+                applyDecision(conn, pending, newStatus, approverID, result);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } finally {
+            invalidateUsers(pending.values());
+        }
+        return result;
+    }
+
+    /**
+     * Approves or rejects every pending record matching a filter in one transaction. Each
+     * filter argument may be null to leave it out.
+     * @param orgID Only records for this organization's events.
+     * @param eventID Only records for this event.
+     * @param from Only records submitted on or after this date.
+     * @param to Only records submitted on or before this date.
+     * @param newStatus The new status, APPROVED or REJECTED.
+     * @param approverID The ID of the user making the change.
+     * @return The number of records matched, updated and skipped, and the hours approved.
+     * @throws SQLException if the transaction cannot be completed; no record is changed.
+     * @throws IllegalArgumentException if newStatus is PENDING.
+     */
+    public BulkStatusResult updatePendingRecordStatuses(String orgID, String eventID, Date from, Date to,
+                                                        VolunteerRecord.Status newStatus, String approverID) throws SQLException {
+        BulkStatusResult result = new BulkStatusResult(checkDecision(newStatus));
+        StringBuilder sql = new StringBuilder(PENDING_ROLLUP_SQL);
+        List<Object> params = new ArrayList<>();
+        if (orgID != null) {
+            sql.append(" AND e.orgID = ?");
+            params.add(orgID);
+        }
+        if (eventID != null) {
+            sql.append(" AND r.eventID = ?");
+            params.add(eventID);
+        }
+        if (from != null) {
+            sql.append(" AND r.submissionDate >= ?");
+            params.add(new java.sql.Date(from.getTime()));
+        }
+        if (to != null) {
+            sql.append(" AND r.submissionDate <= ?");
+            params.add(new java.sql.Date(to.getTime()));
+        }
+        Map<String, RolledUpRecord> pending = new LinkedHashMap<>();
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+                    for (int i = 0; i < params.size(); i++) {
+                        pstmt.setObject(i + 1, params.get(i));
+                    }
+                    pstmt.setFetchSize(fetchSize);
+                    readPendingRecords(pstmt, pending);
+                }
+                result.addRequested(pending.size());
+                applyDecision(conn, pending, newStatus, approverID, result);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } finally {
+            invalidateUsers(pending.values());
+        }
+        return result;
+    }
+
+    /**
+     * Gets one page of the records awaiting approval, oldest submission first, using
+     * idx_records_status_date. Pages are keyed on the last record of the previous page.
+     * @param after The last record of the previous page, or null for the first page.
+     * @param limit The maximum number of records to return.
+     * @return The pending records on the page.
+     * @throws SQLException if a database access error occurs.
+     */
+    public List<VolunteerRecord> getPendingApprovalQueue(VolunteerRecord after, int limit) throws SQLException {
+        List<VolunteerRecord> page = new ArrayList<>(Math.min(Math.max(limit, 0), 1000));
+        if (limit <= 0) {
+            return page;
+        }
+        StringBuilder sql = new StringBuilder("SELECT * FROM records WHERE status = '" + VolunteerRecord.Status.PENDING.name() + "'");
+        if (after != null) {
+            // Records without a submission date sort last
+            sql.append(after.getSubmissionDate() == null
+                    ? " AND submissionDate IS NULL AND recordID > ?"
+                    : " AND (submissionDate > ? OR (submissionDate = ? AND recordID > ?) OR submissionDate IS NULL)");
+        }
+        sql.append(" ORDER BY submissionDate, recordID FETCH FIRST ? ROWS ONLY");
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            int param = 1;
+            if (after != null) {
+                if (after.getSubmissionDate() != null) {
+                    java.sql.Date submitted = new java.sql.Date(after.getSubmissionDate().getTime());
+                    pstmt.setDate(param++, submitted);
+                    pstmt.setDate(param++, submitted);
+                }
+                pstmt.setString(param++, after.getRecordID());
+            }
+            pstmt.setInt(param, limit);
+            pstmt.setFetchSize(Math.min(limit, fetchSize));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    page.add(mapVolunteerRecord(rs));
+                }
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Counts the records awaiting approval.
+     * @return The pending record count.
+     * @throws SQLException if a database access error occurs.
+     */
+    public int countPendingRecords() throws SQLException {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                     "SELECT COUNT(*) FROM records WHERE status = '" + VolunteerRecord.Status.PENDING.name() + "'");
+             ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static VolunteerRecord.Status checkDecision(VolunteerRecord.Status newStatus) {
+        if (newStatus == null || newStatus == VolunteerRecord.Status.PENDING) {
+            throw new IllegalArgumentException("Records can only be approved or rejected in bulk, not set to " + newStatus + ".");
+        }
+        return newStatus;
+    }
+
+    private void readPendingRecords(PreparedStatement pstmt, Map<String, RolledUpRecord> pending) throws SQLException {
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                pending.put(rs.getString(1), new RolledUpRecord(rs.getString(2), rs.getDouble(3), rs.getDate(4),
+                        VolunteerRecord.Status.PENDING, rollupOrgID(rs.getString(5))));
+            }
+        }
+    }
+
+    /**
+     * Moves the pending records to the new status with batched conditional updates and rolls
+     * up the hours of those that changed. A record approved or rejected by someone else since
+     * it was read fails its condition and is skipped rather than rolled up twice.
+     */
+    private void applyDecision(Connection conn, Map<String, RolledUpRecord> pending, VolunteerRecord.Status newStatus,
+                               String approverID, BulkStatusResult result) throws SQLException {
+        Map<List<String>, Double> rollups = new HashMap<>();
+        String sql = "UPDATE records SET status = ?, approverID = ? WHERE recordID = ? AND status = '"
+                + VolunteerRecord.Status.PENDING.name() + "'";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            List<RolledUpRecord> queued = new ArrayList<>(Math.min(pending.size(), batchSize));
+            int remaining = pending.size();
+            for (Map.Entry<String, RolledUpRecord> entry : pending.entrySet()) {
+                pstmt.setString(1, newStatus.name());
+                pstmt.setString(2, approverID);
+                pstmt.setString(3, entry.getKey());
+                pstmt.addBatch();
+                queued.add(entry.getValue());
+                remaining--;
+                if (queued.size() == batchSize || remaining == 0) {
+                    int[] counts = pstmt.executeBatch();
+                    for (int i = 0; i < counts.length; i++) {
+                        if (counts[i] == 0) {
+                            continue;
+                        }
+                        RolledUpRecord record = queued.get(i);
+                        double hours = approvedHours(newStatus, record.hours);
+                        if (hours != 0.0) {
+                            rollups.merge(Arrays.asList(record.userID, record.orgID, semesterOf(record.submissionDate)), hours, Double::sum);
+                        }
+                        result.addUpdated(hours);
+                    }
+                    queued.clear();
+                }
+            }
+        }
+        for (Map.Entry<List<String>, Double> rollup : rollups.entrySet()) {
+            List<String> key = rollup.getKey();
+            addRolledUpHours(conn, key.get(0), key.get(1), key.get(2), rollup.getValue());
+        }
+    }
+
+    private void invalidateUsers(Collection<RolledUpRecord> records) {
+        Set<String> userIDs = new HashSet<>();
+        for (RolledUpRecord record : records) {
+            userIDs.add(record.userID);
+        }
+        for (String userID : userIDs) {
+            userCache.invalidate(userID);
+        }
+    }
+
+    /**
+     * Recomputes every hour rollup and each user's total hours from the approved records.
+     * Use this after records have been changed outside {@link #updateRecordStatus}.
+     * @return The number of rollup rows written.
+     * @throws SQLException if a database access error occurs.
+     */
+    public int rebuildHourRollups() throws SQLException {
+        try (Connection conn = getConnection()) {
+            return rebuildHourRollups(conn);
+        } finally {
+            userCache.clear();
+        }
+    }
+
+    private int rebuildHourRollups(Connection conn) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            Map<List<String>, Double> totals = new HashMap<>();
+            String sql = "SELECT r.userID, e.orgID, r.submissionDate, r.hoursSubmitted FROM records r " +
+                    "JOIN events e ON r.eventID = e.eventID WHERE r.status = '" + VolunteerRecord.Status.APPROVED.name() + "'";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setFetchSize(fetchSize);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        List<String> key = Arrays.asList(rs.getString(1), rollupOrgID(rs.getString(2)), semesterOf(rs.getDate(3)));
+                        totals.merge(key, rs.getDouble(4), Double::sum);
+                    }
+                }
+            }
+
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("DELETE FROM hours_rollup");
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO hours_rollup (userID, orgID, semester, hours) VALUES (?, ?, ?, ?)")) {
+                int queued = 0;
+                for (Map.Entry<List<String>, Double> entry : totals.entrySet()) {
+                    pstmt.setString(1, entry.getKey().get(0));
+                    pstmt.setString(2, entry.getKey().get(1));
+                    pstmt.setString(3, entry.getKey().get(2));
+                    pstmt.setDouble(4, entry.getValue());
+                    pstmt.addBatch();
+                    if (++queued % batchSize == 0) {
+                        pstmt.executeBatch();
+                    }
+                }
+                pstmt.executeBatch();
+            }
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("UPDATE users SET totalHours = " +
+                        "COALESCE((SELECT SUM(h.hours) FROM hours_rollup h WHERE h.userID = users.userID), 0)");
+            }
+            conn.commit();
+            System.out.println("Hour rollups rebuilt: " + totals.size() + " rows.");
+            return totals.size();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Gets a user's approved hours per semester from the hour rollup.
+     * @param userID The ID of the user.
+     * @return Approved hours by semester name, such as "Fall 2024".
+     * @throws SQLException if a database access error occurs.
+     */
+    public Map<String, Double> getHoursBySemester(String userID) throws SQLException {
+        Map<String, Double> hours = new HashMap<>();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                     "SELECT semester, SUM(hours) FROM hours_rollup WHERE userID = ? GROUP BY semester")) {
+            pstmt.setString(1, userID);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    hours.put(rs.getString(1), rs.getDouble(2));
+                }
+            }
+        }
+        return hours;
+    }
+
+    /**
+     * Adds the hours of newly inserted APPROVED records to their users' rollups,
+     * in the inserting transaction.
+     */
+    private void rollUpApprovedHours(Connection conn, List<VolunteerRecord> records) throws SQLException {
+        Map<String, String> orgByEvent = new HashMap<>();
+        for (VolunteerRecord record : records) {
+            if (record.getApprovalStatus() != VolunteerRecord.Status.APPROVED) {
+                continue;
+            }
+            String orgID = orgByEvent.get(record.getEventID());
+            if (orgID == null) {
+                try (PreparedStatement pstmt = conn.prepareStatement("SELECT orgID FROM events WHERE eventID = ?")) {
+                    pstmt.setString(1, record.getEventID());
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        orgID = rollupOrgID(rs.next() ? rs.getString(1) : null);
+                    }
+                }
+                orgByEvent.put(record.getEventID(), orgID);
+            }
+            addRolledUpHours(conn, record.getUserID(), orgID, semesterOf(record.getSubmissionDate()), record.getHoursSubmitted());
+        }
+    }
+
+    /**
+     * Adds hours (or removes them, when negative) to one rollup row and to the user's total.
+     */
+    private void addRolledUpHours(Connection conn, String userID, String orgID, String semester, double delta) throws SQLException {
+        String update = "UPDATE hours_rollup SET hours = hours + ? WHERE userID = ? AND orgID = ? AND semester = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(update)) {
+            pstmt.setDouble(1, delta);
+            pstmt.setString(2, userID);
+            pstmt.setString(3, orgID);
+            pstmt.setString(4, semester);
+            if (pstmt.executeUpdate() == 0) {
+                try (PreparedStatement insert = conn.prepareStatement(
+                        "INSERT INTO hours_rollup (userID, orgID, semester, hours) VALUES (?, ?, ?, ?)")) {
+                    insert.setString(1, userID);
+                    insert.setString(2, orgID);
+                    insert.setString(3, semester);
+                    insert.setDouble(4, delta);
+                    insert.executeUpdate();
+                } catch (SQLException e) {
+                    if (!"23505".equals(e.getSQLState())) {
+                        throw e;
+                    }
+                    // Another transaction created the row first
+                    pstmt.executeUpdate();
+                }
+            }
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement("UPDATE users SET totalHours = totalHours + ? WHERE userID = ?")) {
+            pstmt.setDouble(1, delta);
+            pstmt.setString(2, userID);
+            pstmt.executeUpdate();
+        }
+    }
+
+    private RolledUpRecord findRolledUpRecord(Connection conn, String recordID) throws SQLException {
+        String sql = "SELECT r.userID, r.hoursSubmitted, r.submissionDate, r.status, e.orgID FROM records r " +
+                "JOIN events e ON r.eventID = e.eventID WHERE r.recordID = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, recordID);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                return new RolledUpRecord(rs.getString(1), rs.getDouble(2), rs.getDate(3),
+                        VolunteerRecord.Status.valueOf(rs.getString(4)), rollupOrgID(rs.getString(5)));
+            }
+        }
+    }
+
+    private static double approvedHours(VolunteerRecord.Status status, double hours) {
+        return status == VolunteerRecord.Status.APPROVED ? hours : 0.0;
+    }
+
+    /**
+     * Events without an organization are rolled up under an empty orgID.
+     */
+    private static String rollupOrgID(String orgID) {
+        return orgID == null ? "" : orgID;
+    }
+
+    /**
+     * Inserts many users in a single transaction using JDBC batching.
+     * Rows that fail (for example, a duplicate userID) are reported in the result
+     * and do not prevent the remaining rows from being inserted.
+     * @param users The User objects to insert.
+     * @return A summary of inserted and failed rows.
+     * @throws SQLException if the transaction cannot be completed.
+     */
+    public BatchInsertResult insertUsers(Collection<User> users) throws SQLException {
+        try {
+            return insertBatch(INSERT_USER_SQL, users, this::bindUser, User::getUserID, this::writeUserSkills);
+        } finally {
+            userCache.invalidateAll(users, User::getUserID);
+        }
+    }
+
+    /**
+     * Inserts many organizations in a single transaction using JDBC batching.
+     * @param orgs The Organization objects to insert.
+     * @return A summary of inserted and failed rows.
+     * @throws SQLException if the transaction cannot be completed.
+     */
+    public BatchInsertResult insertOrganizations(Collection<Organization> orgs) throws SQLException {
+        try {
+            return insertBatch(INSERT_ORGANIZATION_SQL, orgs, this::bindOrganization, Organization::getOrgID, null);
+        } finally {
+            organizationCache.invalidateAll(orgs, Organization::getOrgID);
+        }
+    }
+
+    /**
+     * Inserts many events in a single transaction using JDBC batching.
+     * The organizations the events refer to must already exist.
+     * @param events The Event objects to insert.
+     * @return A summary of inserted and failed rows.
+     * @throws SQLException if the transaction cannot be completed.
+     */
+    public BatchInsertResult insertEvents(Collection<Event> events) throws SQLException {
+        BatchInsertResult result;
+        try {
+            result = insertBatch(INSERT_EVENT_SQL, events, this::bindEvent, Event::getEventID, this::writeEventSkills);
+        } finally {
+            eventCache.invalidateAll(events, Event::getEventID);
+        }
+        if (!eventListeners.isEmpty()) {
+            Set<String> failed = new HashSet<>();
+            for (BatchInsertResult.RowFailure failure : result.getFailures()) {
+                failed.add(failure.getId());
+            }
+            for (Event event : events) {
+                if (!failed.contains(event.getEventID())) {
+                    fireEventInserted(event);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Inserts many volunteer records in a single transaction using JDBC batching.
+     * The users and events the records refer to must already exist.
+     * @param records The VolunteerRecord objects to insert.
+     * @return A summary of inserted and failed rows.
+     * @throws SQLException if the transaction cannot be completed.
+     */
+    public BatchInsertResult insertVolunteerRecords(Collection<VolunteerRecord> records) throws SQLException {
+        try {
+            return insertBatch(INSERT_RECORD_SQL, records, this::bindVolunteerRecord, VolunteerRecord::getRecordID, this::rollUpApprovedHours);
+        } finally {
+            userCache.invalidateAll(records, VolunteerRecord::getUserID);
+        }
+    }
+
+    /**
+     * Gets the number of rows sent to the database per JDBC batch by the bulk insert methods.
+     * @return The batch size.
+     */
+    public int getBatchSize() { return batchSize; }
+
+    /**
+     * Sets the number of rows sent to the database per JDBC batch by the bulk insert methods.
+     * @param batchSize The new batch size; must be at least 1.
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1: " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Binds and executes rows in batches of {@link #batchSize} inside one transaction.
+     * When the driver rejects a row, the rows before it in the batch are kept, the row is
+     * recorded as a failure, and batching resumes with the row after it. If a child writer
+     * is given, it is called with the inserted rows before the transaction commits.
+     */
+    private <T> BatchInsertResult insertBatch(String sql, Collection<T> items, RowBinder<T> binder, Function<T, String> idOf, ChildRowWriter<T> children) throws SQLException {
+        List<T> rows = new ArrayList<>(items);
+        BatchInsertResult result = new BatchInsertResult(rows.size());
+        if (rows.isEmpty()) {
+            return result;
+        }
+        boolean[] failed = new boolean[rows.size()];
+        List<T> inserted = new ArrayList<>(rows.size());
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                int next = 0;
+                while (next < rows.size()) {
+                    List<Integer> queued = new ArrayList<>(batchSize);
+                    while (next < rows.size() && queued.size() < batchSize) {
+                        int index = next++;
+                        if (failed[index]) {
+                            continue;
+                        }
+                        try {
+                            binder.bind(pstmt, rows.get(index));
+                            pstmt.addBatch();
+                            queued.add(index);
+                        } catch (Exception e) {
+                            failed[index] = true;
+                            result.addFailure(index, idOf.apply(rows.get(index)), e.getMessage());
+                        }
+                    }
+                    if (queued.isEmpty()) {
+                        continue;
+                    }
+
+                    try {
+                        pstmt.executeBatch();
+                        result.addInserted(queued.size());
+                        for (int index : queued) {
+                            inserted.add(rows.get(index));
+                        }
+                    } catch (BatchUpdateException e) {
+                        if (e.getSQLState() != null && e.getSQLState().startsWith("40")) {
+                            throw e;
+                        }
+                        pstmt.clearBatch();
+                        int[] counts = e.getUpdateCounts();
+                        String message = e.getNextException() != null ? e.getNextException().getMessage() : e.getMessage();
+                        int processed = Math.min(counts.length, queued.size());
+                        for (int k = 0; k < processed; k++) {
+                            int index = queued.get(k);
+                            if (counts[k] == Statement.EXECUTE_FAILED) {
+                                failed[index] = true;
+                                result.addFailure(index, idOf.apply(rows.get(index)), message);
+                            } else {
+                                result.addInserted(1);
+                                inserted.add(rows.get(index));
+                            }
+                        }
+                        if (processed < queued.size()) {
+                            // The driver stopped at this row; resume with the one after it.
+                            int index = queued.get(processed);
+                            failed[index] = true;
+                            result.addFailure(index, idOf.apply(rows.get(index)), message);
+                            next = index + 1;
+                        }
+                    }
+                }
+                if (children != null && !inserted.isEmpty()) {
+                    children.write(conn, inserted);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+        return result;
+    }
+
+    private void bindUser(PreparedStatement pstmt, User user) throws SQLException {
+        pstmt.setString(1, user.getUserID());
+        pstmt.setString(2, user.getFirstName());
+        pstmt.setString(3, user.getLastName());
+        pstmt.setString(4, user.getEmail());
+        pstmt.setString(5, user.getPassword());
+        pstmt.setString(6, user.getRole().name());
+        pstmt.setDouble(7, user.getTotalHours());
+        pstmt.setBytes(8, BlobCodec.encodeSemesterHours(user.getAcademicSemesterHours()));
+        pstmt.setString(9, phoneKey(user.getPhoneNumber()));
+    }
+
+    private void bindOrganization(PreparedStatement pstmt, Organization org) throws SQLException {
+        pstmt.setString(1, org.getOrgID());
+        pstmt.setString(2, org.getOrgName());
+        pstmt.setString(3, org.getContactPersonName());
+        pstmt.setString(4, org.getContactEmail());
+        pstmt.setString(5, org.getContactPhone());
+        pstmt.setString(6, org.getPassword());
+        pstmt.setString(7, org.getDescription());
+        pstmt.setString(8, org.getAddress().getStreet());
+        pstmt.setString(9, org.getAddress().getCity());
+        pstmt.setString(10, org.getAddress().getState());
+        pstmt.setString(11, org.getAddress().getZipCode());
+    }
+
+    private void bindEvent(PreparedStatement pstmt, Event event) throws SQLException {
+        pstmt.setString(1, event.getEventID());
+        pstmt.setString(2, event.getTitle());
+        pstmt.setString(3, event.getDescription());
+        pstmt.setDate(4, new java.sql.Date(event.getDate().getTime()));
+        pstmt.setTime(5, event.getStartTime());
+        pstmt.setTime(6, event.getEndTime());
+        pstmt.setString(7, event.getLocation().getStreet());
+        pstmt.setString(8, event.getLocation().getCity());
+        pstmt.setString(9, event.getLocation().getState());
+        pstmt.setString(10, event.getLocation().getZipCode());
+        pstmt.setInt(11, event.getMaxVolunteers());
+        pstmt.setInt(12, event.getCurrentVolunteers());
+        pstmt.setBytes(13, BlobCodec.encodeStringList(event.getRequiredSkills()));
+        pstmt.setString(14, event.getOrgID());
+        pstmt.setString(15, event.getContactInfo());
+    }
+
+    private void bindNotification(PreparedStatement pstmt, Notification notification) throws SQLException {
+        pstmt.setString(1, notification.getNotificationID());
+        pstmt.setString(2, notification.getUserID());
+        pstmt.setString(3, notification.getMessage());
+        pstmt.setString(4, notification.getType().name());
+        pstmt.setTimestamp(5, new Timestamp(notification.getTimestamp().getTime()));
+        pstmt.setBoolean(6, notification.isReadStatus());
+        pstmt.setTimestamp(7, new Timestamp(notification.getTimestamp().getTime()));
+    }
+
+    private Notification mapNotification(ResultSet rs) throws SQLException {
+        return new Notification(rs.getString("notificationID"), rs.getString("userID"), rs.getString("message"),
+                Notification.NotificationType.valueOf(rs.getString("type")),
+                new Date(rs.getTimestamp("createdAt").getTime()), rs.getBoolean("readStatus"), rs.getInt("attempts"));
+    }
+
+    private void bindVolunteerRecord(PreparedStatement pstmt, VolunteerRecord record) throws SQLException {
+        pstmt.setString(1, record.getRecordID());
+        pstmt.setString(2, record.getUserID());
+        pstmt.setString(3, record.getEventID());
+        pstmt.setDouble(4, record.getHoursSubmitted());
+        pstmt.setDate(5, new java.sql.Date(record.getSubmissionDate().getTime()));
+        pstmt.setString(6, record.getApprovalStatus().name());
+        pstmt.setString(7, record.getApproverID());
+    }
+
+    /**
+     * Gets the number of rows the streaming methods ask the driver to fetch at a time.
+     * @return The fetch size.
+     */
+    public int getFetchSize() { return fetchSize; }
+
+    /**
+     * Sets the number of rows the streaming methods ask the driver to fetch at a time.
+     * @param fetchSize The new fetch size; must be at least 1.
+     */
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("Fetch size must be at least 1: " + fetchSize);
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Runs a query on a forward-only cursor and hands each mapped row to the action.
+     */
+    private <T> void forEachRow(String sql, RowMapper<T> mapper, Consumer<? super T> action, String... params) throws SQLException {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                pstmt.setString(i + 1, params[i]);
+            }
+            pstmt.setFetchSize(fetchSize);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    action.accept(mapper.map(rs));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a page-at-a-time view of the users table, ordered by userID.
+     * @return A PageSource over all users.
+     */
+    public PageSource<User> userPages() {
+        return tablePages("users", "userID", this::mapUser, User::getUserID);
+    }
+
+    /**
+     * Returns a page-at-a-time view of the organizations table, ordered by orgID.
+     * @return A PageSource over all organizations.
+     */
+    public PageSource<Organization> organizationPages() {
+        return tablePages("organizations", "orgID", this::mapOrganization, Organization::getOrgID);
+    }
+
+    /**
+     * Returns a page-at-a-time view of the events table, ordered by eventID.
+     * @return A PageSource over all events.
+     */
+    public PageSource<Event> eventPages() {
+        return tablePages("events", "eventID", this::mapEvent, Event::getEventID);
+    }
+
+    /**
+     * Returns a page-at-a-time view of the records table, ordered by recordID.
+     * @return A PageSource over all volunteer records.
+     */
+    public PageSource<VolunteerRecord> volunteerRecordPages() {
+        return tablePages("records", "recordID", this::mapVolunteerRecord, VolunteerRecord::getRecordID);
+    }
+
+    private <T> PageSource<T> tablePages(String table, String keyColumn, RowMapper<T> mapper, Function<T, String> keyOf) {
+        return new PageSource<T>() {
+            @Override
+            public int count() throws SQLException {
+                return countRows(table);
+            }
+
+            @Override
+            public List<T> pageAfter(String afterKey, int limit) throws SQLException {
+                return page(table, keyColumn, afterKey, limit, mapper);
+            }
+
+            @Override
+            public List<T> pageAt(int offset, int limit) throws SQLException {
+                return pageAtOffset(table, keyColumn, offset, limit, mapper);
+            }
+
+            @Override
+            public String keyOf(T row) {
+                return keyOf.apply(row);
+            }
+        };
+    }
+
+    private int countRows(String table) throws SQLException {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT COUNT(*) FROM " + table);
+             ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Reads the rows at a position in primary key order.
+     */
+    private <T> List<T> pageAtOffset(String table, String keyColumn, int offset, int limit, RowMapper<T> mapper) throws SQLException {
+        List<T> rows = new ArrayList<>(Math.min(limit, 1000));
+        if (limit <= 0) {
+            return rows;
+        }
+        String sql = "SELECT * FROM " + table + " ORDER BY " + keyColumn + " OFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, Math.max(0, offset));
+            pstmt.setInt(2, limit);
+            pstmt.setFetchSize(Math.min(limit, fetchSize));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(mapper.map(rs));
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Reads one keyset page of a table ordered by its primary key.
+     */
+    private <T> List<T> page(String table, String keyColumn, String afterKey, int limit, RowMapper<T> mapper) throws SQLException {
+        List<T> rows = new ArrayList<>(Math.min(limit, 1000));
+        if (limit <= 0) {
+            return rows;
+        }
+        String sql = afterKey == null
+                ? "SELECT * FROM " + table + " ORDER BY " + keyColumn + " FETCH FIRST ? ROWS ONLY"
+                : "SELECT * FROM " + table + " WHERE " + keyColumn + " > ? ORDER BY " + keyColumn + " FETCH FIRST ? ROWS ONLY";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int param = 1;
+            if (afterKey != null) {
+                pstmt.setString(param++, afterKey);
+            }
+            pstmt.setInt(param, limit);
+            pstmt.setFetchSize(Math.min(limit, fetchSize));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(mapper.map(rs));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private User mapUser(ResultSet rs) throws SQLException {
+        String userID = rs.getString("userID");
+        String firstName = rs.getString("firstName");
+        String lastName = rs.getString("lastName");
+        String email = rs.getString("email");
+        String password = rs.getString("password");
+        User.Role role = User.Role.valueOf(rs.getString("role"));
+
+        User user = new User(userID, firstName, lastName, email, password, role);
+        user.setPhoneNumber(rs.getString("phone"));
+        user.setTotalHours(rs.getDouble("totalHours"));
+        try {
+            user.addAcademicHours(BlobCodec.decodeSemesterHours(rs.getBytes("academicSemesterHours")));
+        } catch (IOException e) {
+            System.err.println("Unreadable semester hours for user " + userID + ": " + e.getMessage());
+        }
+        return user;
+    }
+
+    private Event mapEvent(ResultSet rs) throws SQLException {
+        String eventID = rs.getString("eventID");
+        String title = rs.getString("title");
+        String description = rs.getString("description");
+        Date date = rs.getDate("date");
+        Time startTime = rs.getTime("startTime");
+        Time endTime = rs.getTime("endTime");
+        String street = rs.getString("locationStreet");
+        String city = rs.getString("locationCity");
+        String state = rs.getString("locationState");
+        String zipCode = rs.getString("locationZipCode");
+        Address location = new Address(street, city, state, zipCode);
+        int maxVolunteers = rs.getInt("maxVolunteers");
+        int currentVolunteers = rs.getInt("currentVolunteers");
+        List<String> requiredSkills;
+        try {
+            requiredSkills = BlobCodec.decodeStringList(rs.getBytes("requiredSkills"));
+        } catch (IOException e) {
+            System.err.println("Unreadable required skills for event " + eventID + ": " + e.getMessage());
+            requiredSkills = new ArrayList<>();
+        }
+        String orgID = rs.getString("orgID");
+        String contactInfo = rs.getString("contactInfo");
+
+        Event event = new Event(eventID, title, description, date, startTime, endTime, location, maxVolunteers, requiredSkills, orgID, contactInfo);
+        event.setCurrentVolunteers(currentVolunteers);
+        event.setRegistrationLoader(this::getRegisteredUserIDs);
+        return event;
+    }
+
+    /**
+     * Writes the event_skills rows for the given events on the caller's connection and transaction.
+     */
+    private void writeEventSkills(Connection conn, List<Event> events) throws SQLException {
+        String sql = "INSERT INTO event_skills (eventID, skill, skillKey) VALUES (?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int pending = 0;
+            for (Event event : events) {
+                if (event.getRequiredSkills() == null) {
+                    continue;
+                }
+                Set<String> seen = new HashSet<>();
+                for (String skill : event.getRequiredSkills()) {
+                    String key = skillKey(skill);
+                    if (key.isEmpty() || !seen.add(key)) {
+                        continue;
+                    }
+                    pstmt.setString(1, event.getEventID());
+                    pstmt.setString(2, skill.trim());
+                    pstmt.setString(3, key);
+                    pstmt.addBatch();
+                    if (++pending == batchSize) {
+                        pstmt.executeBatch();
+                        pending = 0;
+                    }
+                }
+            }
+            if (pending > 0) {
+                pstmt.executeBatch();
+            }
+        }
+    }
+
+    /**
+     * Writes the user_skills rows for the given users on the caller's connection and transaction.
+     */
+    private void writeUserSkills(Connection conn, List<User> users) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_USER_SKILL_SQL)) {
+            int pending = 0;
+            for (User user : users) {
+                pending += queueUserSkills(pstmt, user.getUserID(), user.getSkills());
+                if (pending >= batchSize) {
+                    pstmt.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                pstmt.executeBatch();
+            }
+        }
+    }
+
+    /**
+     * Adds one user's distinct skills to a pending user_skills insert batch.
+     * @return The number of rows added to the batch.
+     */
+    private int queueUserSkills(PreparedStatement pstmt, String userID, List<String> skills) throws SQLException {
+        Set<String> seen = new HashSet<>();
+        for (String skill : skills) {
+            String key = skillKey(skill);
+            if (key.isEmpty() || !seen.add(key)) {
+                continue;
+            }
+            pstmt.setString(1, userID);
+            pstmt.setString(2, skill.trim());
+            pstmt.setString(3, key);
+            pstmt.addBatch();
+        }
+        return seen.size();
+    }
+
+    /**
+     * Normalizes a skill name for storage and lookup, so that "First Aid" and " first aid" match.
+     * @param skill The skill name as entered.
+     * @return The trimmed, lower-case skill key.
+     */
+    static String skillKey(String skill) {
+        return skill == null ? "" : skill.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Names the academic semester a date falls in: Spring (January to May),
+     * Summer (June and July) or Fall (August to December), followed by the year.
+     * @param date The date.
+     * @return The semester name, such as "Fall 2024".
+     */
+    static String semesterOf(Date date) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(date);
+        int month = calendar.get(Calendar.MONTH);
+        String term = month <= Calendar.MAY ? "Spring" : month <= Calendar.JULY ? "Summer" : "Fall";
+        return term + " " + calendar.get(Calendar.YEAR);
+    }
+
+    /**
+     * Normalizes a phone number for storage and lookup, so that "(757) 123-4567" and
+     * "757.123.4567" match. A leading US country code is dropped.
+     * @param phoneNumber The phone number as entered.
+     * @return The digits of the number, or null if it has none.
+     */
+    static String phoneKey(String phoneNumber) {
+        if (phoneNumber == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(phoneNumber.length());
+        for (int i = 0; i < phoneNumber.length(); i++) {
+            char c = phoneNumber.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        if (digits.length() == 11 && digits.charAt(0) == '1') {
+            digits.deleteCharAt(0);
+        }
+        return digits.length() == 0 ? null : digits.toString();
+    }
+
+    private CheckIn mapCheckIn(ResultSet rs) throws SQLException {
+        Timestamp checkOutTime = rs.getTimestamp("checkOutTime");
+        return new CheckIn(rs.getString("checkinID"), rs.getString("userID"), rs.getString("eventID"),
+                new Date(rs.getTimestamp("checkInTime").getTime()),
+                checkOutTime == null ? null : new Date(checkOutTime.getTime()),
+                rs.getString("recordID"));
+    }
+
+    private Organization mapOrganization(ResultSet rs) throws SQLException {
+        String orgID = rs.getString("orgID");
+        String orgName = rs.getString("orgName");
+        String contactPersonName = rs.getString("contactPersonName");
+        String contactEmail = rs.getString("contactEmail");
+        String contactPhone = rs.getString("contactPhone");
+        String password = rs.getString("password");
+        String description = rs.getString("description");
+        String street = rs.getString("addressStreet");
+        String city = rs.getString("addressCity");
+        String state = rs.getString("addressState");
+        String zipCode = rs.getString("addressZipCode");
+        Address address = new Address(street, city, state, zipCode);
+
+        return new Organization(orgID, orgName, contactPersonName, contactEmail, contactPhone, password, description, address);
+    }
+
+    private VolunteerRecord mapVolunteerRecord(ResultSet rs) throws SQLException {
+        String recordID = rs.getString("recordID");
+        String userID = rs.getString("userID");
+        String eventID = rs.getString("eventID");
+        double hoursSubmitted = rs.getDouble("hoursSubmitted");
+        Date submissionDate = rs.getDate("submissionDate");
+        VolunteerRecord.Status status = VolunteerRecord.Status.valueOf(rs.getString("status"));
+        String approverID = rs.getString("approverID");
+
+        return new VolunteerRecord(recordID, userID, eventID, hoursSubmitted, submissionDate, status, approverID);
+    }
+
+    /**
+     * Binds the fields of one entity to the parameters of an INSERT statement.
+     */
+    private interface RowBinder<T> {
+        void bind(PreparedStatement pstmt, T item) throws Exception;
+    }
+
+    /**
+     * Writes rows that belong to entities inserted in the same bulk transaction.
+     */
+    private interface ChildRowWriter<T> {
+        void write(Connection conn, List<T> inserted) throws SQLException;
+    }
+
+    /**
+     * A named secondary index over one or more columns of a table.
+     */
+    private static final class IndexDefinition {
+        private final String name;
+        private final String table;
+        private final String[] columns;
+
+        private IndexDefinition(String name, String table, String... columns) {
+            this.name = name;
+            this.table = table;
+            this.columns = columns;
+        }
+
+        private String toDDL() {
+            return "CREATE INDEX " + name + " ON " + table + " (" + String.join(", ", columns) + ")";
+        }
+    }
+
+    /**
+     * The columns of a record and its event that decide where its hours are rolled up.
+     */
+    private static final class RolledUpRecord {
+        private final String userID;
+        private final double hours;
+        private final Date submissionDate;
+        private final VolunteerRecord.Status status;
+        private final String orgID;
+
+        private RolledUpRecord(String userID, double hours, Date submissionDate, VolunteerRecord.Status status, String orgID) {
+            this.userID = userID;
+            this.hours = hours;
+            this.submissionDate = submissionDate;
+            this.status = status;
+            this.orgID = orgID;
+        }
+    }
+
+    /**
+     * Builds one entity from the current row of a result set.
+     */
+    private interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Retrieves all users from the database.
+     * Prefer {@link #forEachUser(Consumer)} or {@link #getUsersPage(String, int)} for large tables.
+     * @return A list of all User objects.
+     * @throws SQLException if a database access error occurs.
+     */
+    public List<User> getAllUsers() throws SQLException {
+        List<User> userList = new ArrayList<>();
+        forEachUser(userList::add);
+        return userList;
+    }
+
+    /**
+     * Streams every user to the given action, one row at a time,
+     * without holding the whole table in memory. Rows are fetched from the database
+     * {@link #getFetchSize()} at a time.
+     * @param action The action to run for each user.
+     * @throws SQLException if a database access error occurs.
+     */
+    public void forEachUser(Consumer<? super User> action) throws SQLException {
+        forEachRow("SELECT * FROM users", this::mapUser, action);
+    }
+
+    /**
+     * Retrieves one page of users ordered by userID, starting after the given key.
+     * Pass the userID of the last row of a page to get the next page.
+     * @param afterUserID The userID to start after, or null for the first page.
+     * @param limit The maximum number of rows to return.
+     * @return Up to limit User objects in userID order.
+     * @throws SQLException if a database access error occurs.
+     */
+    public List<User> getUsersPage(String afterUserID, int limit) throws SQLException {
+        return page("users", "userID", afterUserID, limit, this::mapUser);
+    }
+
+    /**
+     * Retrieves all organizations from the database.
+     * Prefer {@link #forEachOrganization(Consumer)} or {@link #getOrganizationsPage(String, int)} for large tables.
+     * @return A list of all Organization objects.
+     * @throws SQLException if a database access error occurs.
+     */
+    public List<Organization> getAllOrganizations() throws SQLException {
+        List<Organization> orgList = new ArrayList<>();
+        forEachOrganization(orgList::add);
+        return orgList;
+    }
+
+    /**
+     * Streams every organization to the given action, one row at a time,
+     * without holding the whole table in memory. Rows are fetched from the database
+     * {@link #getFetchSize()} at a time.
+     * @param action The action to run for each organization.
+     * @throws SQLException if a database access error occurs.
+     */
+    public void forEachOrganization(Consumer<? super Organization> action) throws SQLException {
+        forEachRow("SELECT * FROM organizations", this::mapOrganization, action);
+    }
+
+    /**
+     * Retrieves one page of organizations ordered by orgID, starting after the given key.
+     * Pass the orgID of the last row of a page to get the next page.
+     * @param afterOrgID The orgID to start after, or null for the first page.
+     * @param limit The maximum number of rows to return.
+     * @return Up to limit Organization objects in orgID order.
+     * @throws SQLException if a database access error occurs.
+     */
+    public List<Organization> getOrganizationsPage(String afterOrgID, int limit) throws SQLException {
+        return page("organizations", "orgID", afterOrgID, limit, this::mapOrganization);
+    }
+
+    /**
+     * Retrieves all events from the database.
+     * Prefer {@link #forEachEvent(Consumer)} or {@link #getEventsPage(String, int)} for large tables.
+     * @return A list of all Event objects.
+     * @throws SQLException if a database access error occurs.
+     */
+    public List<Event> getAllEvents() throws SQLException {
+        List<Event> eventList = new ArrayList<>();
+        forEachEvent(eventList::add);
+        return eventList;
+    }
+
+    /**
+     * Streams every event to the given action, one row at a time,
+     * without holding the whole table in memory. Rows are fetched from the database
+     * {@link #getFetchSize()} at a time.
+     * @param action The action to run for each event.
+     * @throws SQLException if a database access error occurs.
+     */
+    public void forEachEvent(Consumer<? super Event> action) throws SQLException {
+        forEachRow("SELECT * FROM events", this::mapEvent, action);
+    }
+
+    /**
+     * Retrieves one page of events ordered by eventID, starting after the given key.
+     * Pass the eventID of the last row of a page to get the next page.
+     * @param afterEventID The eventID to start after, or null for the first page.
+     * @param limit The maximum number of rows to return.
+     * @return Up to limit Event objects in eventID order.
+     * @throws SQLException if a database access error occurs.
+     */
+    public List<Event> getEventsPage(String afterEventID, int limit) throws SQLException {
+        return page("events", "eventID", afterEventID, limit, this::mapEvent);
+    }
+
+    /**
+     * Inserts a new event and notifies every volunteer with one of its required skills, all in
+     * one transaction. The audience is read in a single pass over the indexed user_skills table
+     * and the NEW_OPPORTUNITY notifications are written with JDBC batching, so an event reaching
+     * tens of thousands of volunteers costs a few hundred round trips rather than one per
+     * recipient. The notifications are delivered later by the {@link NotificationDispatcher}.
+     * @param event The Event object to insert.
+     * @return The number of volunteers notified.
+     * @throws SQLException if the transaction cannot be completed.
+     */
+    public int publishEvent(Event event) throws SQLException {
+        List<String> keys = new ArrayList<>();
+        if (event.getRequiredSkills() != null) {
+            for (String skill : event.getRequiredSkills()) {
+                String key = skillKey(skill);
+                if (!key.isEmpty() && !keys.contains(key)) {
+                    keys.add(key);
+                }
+            }
+        }
+        String message = "New opportunity matching your skills: " + event.getTitle() + " on " + event.getDate() + ".";
+        Map<String, Integer> recipients = new HashMap<>();
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement pstmt = conn.prepareStatement(INSERT_EVENT_SQL)) {
+                    bindEvent(pstmt, event);
+                    pstmt.executeUpdate();
+                }
+                writeEventSkills(conn, Collections.singletonList(event));
+
+                if (!keys.isEmpty()) {
+                    String audience = "SELECT DISTINCT us.userID FROM user_skills us JOIN users u ON u.userID = us.userID " +
+                            "WHERE us.skillKey IN (" + placeholders(keys.size()) + ") AND u.role = '" + User.Role.VOLUNTEER.name() + "'";
+                    try (PreparedStatement select = conn.prepareStatement(audience);
+                         PreparedStatement insert = conn.prepareStatement(INSERT_NOTIFICATION_SQL)) {
+                        for (int i = 0; i < keys.size(); i++) {
+                            select.setString(i + 1, keys.get(i));
+                        }
+                        select.setFetchSize(fetchSize);
+                        try (ResultSet rs = select.executeQuery()) {
+                            int pending = 0;
+                            while (rs.next()) {
+                                String userID = rs.getString(1);
+                                bindNotification(insert, new Notification(UUID.randomUUID().toString(), userID, message,
+                                        Notification.NotificationType.NEW_OPPORTUNITY));
+                                insert.addBatch();
+                                recipients.put(userID, 1);
+                                if (++pending == batchSize) {
+                                    insert.executeBatch();
+                                    pending = 0;
+                                }
+                            }
+                            if (pending > 0) {
+                                insert.executeBatch();
+                            }
+                        }
+                    }
+                    addUnread(conn, recipients);
+                }
+                conn.commit();
+                System.out.println("Event " + event.getEventID() + " published; " + recipients.size() + " volunteers notified.");
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } finally {
+            eventCache.invalidate(event.getEventID());
+        }
+        fireEventInserted(event);
+        return recipients.size();
+    }
+
+    /**
+     * Gets the skills a user offers.
+     * @param userID The ID of the user.
+     * @return The skills, as entered.
+     * @throws SQLException if a database access error occurs.
+     */
+    public List<String> getUserSkills(String userID) throws SQLException {
+        List<String> skills = new ArrayList<>();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT skill FROM user_skills WHERE userID = ? ORDER BY skillKey")) {
+            pstmt.setString(1, userID);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    skills.add(rs.getString(1));
+                }
+            }
+        }
+        return skills;
+    }
+
+    /**
+     * Replaces the skills a user offers.
+     * @param userID The ID of the user.
+     * @param skills The user's new skills.
+     * @throws SQLException if a database access error occurs.
+     */
+    public void setUserSkills(String userID, List<String> skills) throws SQLException {
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement delete = conn.prepareStatement("DELETE FROM user_skills WHERE userID = ?");
+                 PreparedStatement insert = conn.prepareStatement(INSERT_USER_SKILL_SQL)) {
+                delete.setString(1, userID);
+                delete.executeUpdate();
+                if (queueUserSkills(insert, userID, skills) > 0) {
+                    insert.executeBatch();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } finally {
+            userCache.invalidate(userID);
+        }
+    }
+
+    /**
+     * Finds the events that require any of the given skills. Matching is case-insensitive
+     * and runs entirely against the indexed event_skills table.
+     * @param skills The skills to look for.
+     * @return The matching events, each listed once.
+     * @throws SQLException if a database access error occurs.
+     */
+    public List<Event> findEventsBySkill(String... skills) throws SQLException {
+        List<String> keys = new ArrayList<>();
+        for (String skill : skills) {
+            String key = skillKey(skill);
+            if (!key.isEmpty() && !keys.contains(key)) {
+                keys.add(key);
+            }
+        }
+        List<Event> eventList = new ArrayList<>();
+        if (keys.isEmpty()) {
+            return eventList;
+        }
+
+        String sql = "SELECT * FROM events WHERE eventID IN " +
+                "(SELECT eventID FROM event_skills WHERE skillKey IN (" + placeholders(keys.size()) + "))";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < keys.size(); i++) {
+                pstmt.setString(i + 1, keys.get(i));
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    eventList.add(mapEvent(rs));
+                }
+            }
+        }
+        return eventList;
+    }
+
+    /**
+     * Finds the user with a phone number using idx_users_phone. Formatting in the
+     * number is ignored.
+     * @param phoneNumber The phone number to look up.
+     * @return The User object, or null if no user has that number.
+     * @throws SQLException if a database access error occurs.
+     */
+    public User getUserByPhone(String phoneNumber) throws SQLException {
+        String key = phoneKey(phoneNumber);
+        if (key == null) {
+            return null;
+        }
+        List<User> users = queryByKey("SELECT * FROM users WHERE phone = ? FETCH FIRST 1 ROWS ONLY", key, this::mapUser);
+        return users.isEmpty() ? null : users.get(0);
+    }
+
+    /**
+     * Checks a volunteer in to an event. Checking in again before checking out
+     * returns the existing open check-in, so a repeated kiosk tap is harmless. The
+     * uq_checkins_open constraint allows one open check-in per volunteer and event, so when
+     * two taps race, the insert that loses returns the check-in the other one created.
+     * @param userID The ID of the volunteer.
+     * @param eventID The ID of the event.
+     * @param time When the volunteer checked in.
+     * @return The open check-in.
+     * @throws SQLException if a database access error occurs.
+     */
+    public CheckIn checkIn(String userID, String eventID, Date time) throws SQLException {
+        try (Connection conn = getConnection()) {
+            CheckIn open = findOpenCheckIn(conn, userID, eventID);
+            if (open != null) {
+                return open;
+            }
+            CheckIn checkIn = new CheckIn("checkin-" + UUID.randomUUID(), userID, eventID, time, null, null);
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO checkins (checkinID, userID, eventID, checkInTime, openFlag) VALUES (?, ?, ?, ?, 'Y')")) {
+                pstmt.setString(1, checkIn.getCheckinID());
+                pstmt.setString(2, userID);
+                pstmt.setString(3, eventID);
+                pstmt.setTimestamp(4, new Timestamp(time.getTime()));
+                pstmt.executeUpdate();
+            } catch (SQLException e) {
+                if ("23505".equals(e.getSQLState())) {
+                    // Another kiosk checked this volunteer in first
+                    open = findOpenCheckIn(conn, userID, eventID);
+                    if (open != null) {
+                        return open;
+                    }
+                }
+                throw e;
+            }
+            return checkIn;
+        }
+    }
+
+    /**
+     * Checks a volunteer out of an event. In one transaction the open check-in is closed
+     * and a pending {@link VolunteerRecord} is created for the hours between check-in and check-out.
+     * @param userID The ID of the volunteer.
+     * @param eventID The ID of the event.
+     * @param time When the volunteer checked out.
+     * @return The completed check-in, or null if the volunteer was not checked in.
+     * @throws SQLException if a database access error occurs.
+     */
+    public CheckIn checkOut(String userID, String eventID, Date time) throws SQLException {
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                CheckIn open = findOpenCheckIn(conn, userID, eventID);
+                if (open == null) {
+                    conn.rollback();
+                    return null;
+                }
+                double hours = CheckIn.hoursBetween(open.getCheckInTime(), time);
+                VolunteerRecord record = new VolunteerRecord("record-" + UUID.randomUUID(), userID, eventID,
+                        hours, time, VolunteerRecord.Status.PENDING, null);
+                try (PreparedStatement pstmt = conn.prepareStatement(INSERT_RECORD_SQL)) {
+                    bindVolunteerRecord(pstmt, record);
+                    pstmt.executeUpdate();
+                }
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                        "UPDATE checkins SET checkOutTime = ?, recordID = ?, openFlag = NULL WHERE checkinID = ? AND checkOutTime IS NULL")) {
+                    pstmt.setTimestamp(1, new Timestamp(time.getTime()));
+                    pstmt.setString(2, record.getRecordID());
+                    pstmt.setString(3, open.getCheckinID());
+                    if (pstmt.executeUpdate() == 0) {
+                        // Another kiosk checked this volunteer out first
+                        conn.rollback();
+                        return null;
+                    }
+                }
+                conn.commit();
+                return new CheckIn(open.getCheckinID(), userID, eventID, open.getCheckInTime(), time, record.getRecordID());
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Registers a volunteer for an event, taking one of its slots. The slot is claimed with a
+     * single conditional UPDATE, so concurrent registrations lock only the event's own row
+     * and can never take the event past maxVolunteers.
+     * @param eventID The ID of the event.
+     * @param userID The ID of the volunteer.
+     * @return The outcome of the registration.
+     * @throws SQLException if a database access error occurs.
+     */
+    public RegistrationResult registerVolunteer(String eventID, String userID) throws SQLException {
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                // Claim the slot first: the exclusive row lock serializes registrations for this
+                // event only, and taking it before the insert avoids a deadlock with the
+                // shared lock the foreign key check would otherwise hold on the event row.
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                        "UPDATE events SET currentVolunteers = currentVolunteers + 1 WHERE eventID = ? AND currentVolunteers < maxVolunteers")) {
+                    pstmt.setString(1, eventID);
+                    if (pstmt.executeUpdate() == 0) {
+                        conn.rollback();
+                        return explainRejectedRegistration(conn, eventID, userID);
+                    }
+                }
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                        "INSERT INTO event_registrations (eventID, userID, registeredAt) VALUES (?, ?, ?)")) {
+                    pstmt.setString(1, eventID);
+                    pstmt.setString(2, userID);
+                    pstmt.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+                    pstmt.executeUpdate();
+                } catch (SQLException e) {
+                    if ("23505".equals(e.getSQLState())) {
+                        conn.rollback();
+                        return RegistrationResult.ALREADY_REGISTERED;
+                    }
+                    if ("23503".equals(e.getSQLState())) {
+                        conn.rollback();
+                        return RegistrationResult.NOT_FOUND;
+                    }
+                    throw e;
+                }
+                conn.commit();
+                return RegistrationResult.REGISTERED;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } finally {
+            eventCache.invalidate(eventID);
+        }
+    }
+
+    /**
+     * Works out why the conditional slot update matched no row.
+     */
+    private RegistrationResult explainRejectedRegistration(Connection conn, String eventID, String userID) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT (SELECT COUNT(*) FROM events WHERE eventID = ?), " +
+                "(SELECT COUNT(*) FROM event_registrations WHERE eventID = ? AND userID = ?) FROM SYSIBM.SYSDUMMY1")) {
+            pstmt.setString(1, eventID);
+            pstmt.setString(2, eventID);
+            pstmt.setString(3, userID);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                if (rs.getInt(1) == 0) {
+                    return RegistrationResult.NOT_FOUND;
+                }
+                return rs.getInt(2) > 0 ? RegistrationResult.ALREADY_REGISTERED : RegistrationResult.FULL;
+            }
+        }
+    }
+
+    /**
+     * Cancels a volunteer's registration for an event and frees the slot.
+     * @param eventID The ID of the event.
+     * @param userID The ID of the volunteer.
+     * @return true if a registration was cancelled, false if the volunteer was not registered.
+     * @throws SQLException if a database access error occurs.
+     */
+    public boolean cancelRegistration(String eventID, String userID) throws SQLException {
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                        "DELETE FROM event_registrations WHERE eventID = ? AND userID = ?")) {
+                    pstmt.setString(1, eventID);
+                    pstmt.setString(2, userID);
+                    if (pstmt.executeUpdate() == 0) {
+                        conn.rollback();
+                        return false;
+                    }
+                }
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                        "UPDATE events SET currentVolunteers = currentVolunteers - 1 WHERE eventID = ? AND currentVolunteers > 0")) {
+                    pstmt.setString(1, eventID);
+                    pstmt.executeUpdate();
+                }
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } finally {
+            eventCache.invalidate(eventID);
+        }
+    }
+
+    /**
+     * Retrieves the IDs of the volunteers registered for an event, using the table's primary key.
+     * @param eventID The ID of the event.
+     * @return The registered user IDs.
+     * @throws SQLException if a database access error occurs.
+     */
+    public Set<String> getRegisteredUserIDs(String eventID) throws SQLException {
+        return new HashSet<>(queryByKey("SELECT userID FROM event_registrations WHERE eventID = ?", eventID, rs -> rs.getString(1)));
+    }
+
+    /**
+     * Retrieves the IDs of the events a volunteer is registered for, using idx_registrations_user.
+     * @param userID The ID of the volunteer.
+     * @return The IDs of the events.
+     * @throws SQLException if a database access error occurs.
+     */
+    public Set<String> getRegisteredEventIDs(String userID) throws SQLException {
+        return new HashSet<>(queryByKey("SELECT eventID FROM event_registrations WHERE userID = ?", userID, rs -> rs.getString(1)));
+    }
+
+    /**
+     * Reads an event's remaining slots straight from the database, bypassing the event cache.
+     * @param eventID The ID of the event.
+     * @return The number of free slots, or -1 if the event does not exist.
+     * @throws SQLException if a database access error occurs.
+     */
+    public int getRemainingSlots(String eventID) throws SQLException {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                     "SELECT maxVolunteers - currentVolunteers FROM events WHERE eventID = ?")) {
+            pstmt.setString(1, eventID);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? Math.max(0, rs.getInt(1)) : -1;
+            }
+        }
+    }
+
+    private CheckIn findOpenCheckIn(Connection conn, String userID, String eventID) throws SQLException {
+        String sql = "SELECT * FROM checkins WHERE userID = ? AND eventID = ? AND checkOutTime IS NULL " +
+                "ORDER BY checkInTime DESC FETCH FIRST 1 ROWS ONLY";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, userID);
+            pstmt.setString(2, eventID);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? mapCheckIn(rs) : null;
+            }
+        }
+    }
+
+    /**
+     * Retrieves a user's volunteer records, oldest first, using idx_records_user.
+     * @param userID The ID of the user.
+     * @return The user's records.
+     * @throws SQLException if a database access error occurs.
+     */
+    public List<VolunteerRecord> getRecordsForUser(String userID) throws SQLException {
+        return queryByKey("SELECT * FROM records WHERE userID = ? ORDER BY submissionDate", userID, this::mapVolunteerRecord);
+    }
+
+    /**
+     * Retrieves the volunteer records submitted for an event, oldest first, using idx_records_event.
+     * @param eventID The ID of the event.
+     * @return The event's records.
+     * @throws SQLException if a database access error occurs.
+     */
+    public List<VolunteerRecord> getRecordsForEvent(String eventID) throws SQLException {
+        return queryByKey("SELECT * FROM records WHERE eventID = ? ORDER BY submissionDate", eventID, this::mapVolunteerRecord);
+    }
+
+    /**
+     * Streams the volunteer records for an organization's events to the given action in
+     * submission order, one row at a time. The organization's events are found through idx_events_org.
+     * @param orgID The ID of the organization.
+     * @param action The action to run for each volunteer record.
+     * @throws SQLException if a database access error occurs.
+     */
+    public void forEachRecordForOrg(String orgID, Consumer<? super VolunteerRecord> action) throws SQLException {
+        String sql = "SELECT r.* FROM events e JOIN records r ON r.eventID = e.eventID " +
+                "WHERE e.orgID = ? ORDER BY r.submissionDate, r.recordID";
+        forEachRow(sql, this::mapVolunteerRecord, action, orgID);
+    }
+
+    /**
+     * Retrieves the records awaiting approval for an organization's events. The organization's
+     * events are found through idx_events_org and their pending records through idx_records_status_event.
+     * @param orgID The ID of the organization.
+     * @return The pending records, oldest first.
+     * @throws SQLException if a database access error occurs.
+     */
+    public List<VolunteerRecord> getPendingRecordsForOrg(String orgID) throws SQLException {
+        String sql = "SELECT r.* FROM events e JOIN records r ON r.eventID = e.eventID " +
+                "WHERE e.orgID = ? AND r.status = '" + VolunteerRecord.Status.PENDING.name() + "' " +
+                "ORDER BY r.submissionDate";
+        return queryByKey(sql, orgID, this::mapVolunteerRecord);
+    }
+
+    /**
+     * Retrieves an organization's events in date order using idx_events_org.
+     * @param orgID The ID of the organization.
+     * @return The organization's events.
+     * @throws SQLException if a database access error occurs.
+     */
+    public List<Event> getEventsForOrg(String orgID) throws SQLException {
+        return queryByKey("SELECT * FROM events WHERE orgID = ? ORDER BY date", orgID, this::mapEvent);
+    }
+
+    /**
+     * Runs a query with a single string parameter and maps every row.
+     */
+    private <T> List<T> queryByKey(String sql, String key, RowMapper<T> mapper) throws SQLException {
+        List<T> rows = new ArrayList<>();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, key);
+            pstmt.setFetchSize(fetchSize);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(mapper.map(rs));
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Builds a comma-separated list of JDBC parameter markers.
+     */
+    private static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            sb.append(i == 0 ? "?" : ", ?");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Retrieves an existing user by their ID, served from the user cache when possible.
+     * The cached user is never handed out; each caller gets its own copy to change.
+     * @param userID The ID of the user to retrieve.
+     * @return The User object, or null if not found.
+     * @throws SQLException if a database access error occurs.
+     */
+    public User getUserByID(String userID) throws SQLException {
+        User cached = userCache.get(userID, id -> {
+            User user = findByID("SELECT * FROM users WHERE userID = ?", id, this::mapUser);
+            if (user != null) {
+                user.setSkills(getUserSkills(id));
+            }
+            return user;
+        });
+        return cached == null ? null : new User(cached);
+    }
+
+    /**
+     * Retrieves an existing event by its ID, served from the event cache when possible.
+     * Each caller gets its own copy of the cached event.
+     * @param eventID The ID of the event to retrieve.
+     * @return The Event object, or null if not found.
+     * @throws SQLException if a database access error occurs.
+     */
+    public Event getEventByID(String eventID) throws SQLException {
+        Event event = eventCache.get(eventID, id -> findByID("SELECT * FROM events WHERE eventID = ?", id, this::mapEvent));
+        return event == null ? null : new Event(event);
+    }
+
+    /**
+     * Retrieves an existing organization by its ID, served from the organization cache when possible.
+     * Each caller gets its own copy of the cached organization.
+     * @param orgID The ID of the organization to retrieve.
+     * @return The Organization object, or null if not found.
+     * @throws SQLException if a database access error occurs.
+     */
+    public Organization getOrganizationByID(String orgID) throws SQLException {
+        Organization org = organizationCache.get(orgID, id -> findByID("SELECT * FROM organizations WHERE orgID = ?", id, this::mapOrganization));
+        return org == null ? null : new Organization(org);
+    }
+
+    private <T> T findByID(String sql, String id, RowMapper<T> mapper) throws SQLException {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapper.map(rs);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Retrieves all volunteer records from the database.
+     * Prefer {@link #forEachVolunteerRecord(Consumer)} or {@link #getVolunteerRecordsPage(String, int)} for large tables.
+     * @return A list of all VolunteerRecord objects.
+     * @throws SQLException if a database access error occurs.
+     */
+    public List<VolunteerRecord> getAllVolunteerRecords() throws SQLException {
+        List<VolunteerRecord> recordList = new ArrayList<>();
+        forEachVolunteerRecord(recordList::add);
+        return recordList;
+    }
+
+    /**
+     * Streams every volunteer record to the given action, one row at a time,
+     * without holding the whole table in memory. Rows are fetched from the database
+     * {@link #getFetchSize()} at a time.
+     * @param action The action to run for each volunteer record.
+     * @throws SQLException if a database access error occurs.
+     */
+    public void forEachVolunteerRecord(Consumer<? super VolunteerRecord> action) throws SQLException {
+        forEachRow("SELECT * FROM records", this::mapVolunteerRecord, action);
+    }
+
+    /**
+     * Retrieves one page of volunteer records ordered by recordID, starting after the given key.
+     * Pass the recordID of the last row of a page to get the next page.
+     * @param afterRecordID The recordID to start after, or null for the first page.
+     * @param limit The maximum number of rows to return.
+     * @return Up to limit VolunteerRecord objects in recordID order.
+     * @throws SQLException if a database access error occurs.
+     */
+    public List<VolunteerRecord> getVolunteerRecordsPage(String afterRecordID, int limit) throws SQLException {
+        return page("records", "recordID", afterRecordID, limit, this::mapVolunteerRecord);
+    }
+
+
+    /**
+     * Updates an existing user's data in the database.
+     * @param user The User object with updated information.
+     * @throws SQLException if a database access error occurs.
+     */
+    public void updateUser(User user) throws SQLException {
+        String sql = "UPDATE users SET firstName = ?, lastName = ?, email = ?, password = ?, role = ?, phone = ? WHERE userID = ?";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, user.getFirstName());
+            pstmt.setString(2, user.getLastName());
+            pstmt.setString(3, user.getEmail());
+            pstmt.setString(4, user.getPassword());
+            pstmt.setString(5, user.getRole().name());
+            pstmt.setString(6, phoneKey(user.getPhoneNumber()));
+            pstmt.setString(7, user.getUserID());
+
+            pstmt.executeUpdate();
+        } finally {
+            userCache.invalidate(user.getUserID());
+        }
+    }
+
+    /**
+     * Deletes a user from the database by their userID, together with every row that refers
+     * to them, in one transaction. The user's event registrations are cancelled and their
+     * slots returned to the events; their skills, notifications, unread counter, hour rollups,
+     * check-ins and volunteer records are deleted.
+     * @param userID The ID of the user to delete.
+     * @throws SQLException if a database access error occurs; nothing is deleted.
+     */
+    public void deleteUser(String userID) throws SQLException {
+        Set<String> registeredEventIDs = new HashSet<>();
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement pstmt = conn.prepareStatement("SELECT eventID FROM event_registrations WHERE userID = ?")) {
+                    pstmt.setString(1, userID);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            registeredEventIDs.add(rs.getString(1));
+                        }
+                    }
+                }
+                // Free the slots before dropping the registrations, taking the event row locks
+                // in the same order as registerVolunteer and cancelRegistration
+                executeForUser(conn, "UPDATE events SET currentVolunteers = currentVolunteers - 1 WHERE currentVolunteers > 0 " +
+                        "AND eventID IN (SELECT eventID FROM event_registrations WHERE userID = ?)", userID);
+                executeForUser(conn, "DELETE FROM event_registrations WHERE userID = ?", userID);
+                executeForUser(conn, "DELETE FROM user_skills WHERE userID = ?", userID);
+                executeForUser(conn, "DELETE FROM unread_counts WHERE userID = ?", userID);
+                executeForUser(conn, "DELETE FROM notifications WHERE userID = ?", userID);
+                executeForUser(conn, "DELETE FROM hours_rollup WHERE userID = ?", userID);
+                // Check-ins refer to the records created at check-out, so they go first
+                executeForUser(conn, "DELETE FROM checkins WHERE userID = ?", userID);
+                executeForUser(conn, "DELETE FROM records WHERE userID = ?", userID);
+                executeForUser(conn, "DELETE FROM users WHERE userID = ?", userID);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } finally {
+            userCache.invalidate(userID);
+            for (String eventID : registeredEventIDs) {
+                eventCache.invalidate(eventID);
+            }
+        }
+    }
+
+    private static int executeForUser(Connection conn, String sql, String userID) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, userID);
+            return pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Closes the connection pool and shuts the database down gracefully.
+     */
+    public void shutdown() {
+        synchronized (this) {
+            if (connectionPool != null) {
+                System.out.println(connectionPool.getStatistics());
+                connectionPool.close();
+                connectionPool = null;
+            }
+        }
+        for (EntityCache.Statistics stats : getCacheStatistics()) {
+            System.out.println(stats);
+        }
         try {
             DriverManager.getConnection("jdbc:derby:volunteerdb;shutdown=true");
         } catch (SQLException e) {
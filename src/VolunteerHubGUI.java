@@ -1,5 +1,6 @@
 import javax.swing.*;
 import java.awt.*;
+import java.sql.SQLException;
 
 /**
  * The main class for the Volunteer Hub graphical user interface (GUI).
@@ -11,13 +12,38 @@ public class VolunteerHubGUI extends JFrame {
 
     /** The database manager instance to interact with the database. */
     private VolunteerDatabase dbManager;
+    /** The check-in service shared by every login dialog; created on first use if none was given. */
+    private CheckInService checkInService;
+    /** The service that registers volunteers for events. */
+    private RegistrationService registrationService;
 
     /**
      * Constructs a new VolunteerHubGUI object, setting up the main window and its components.
      * @param dbManager The database manager instance.
      */
     public VolunteerHubGUI(VolunteerDatabase dbManager) {
+        this(dbManager, new RegistrationService(dbManager));
+    }
+
+    /**
+     * Constructs a new VolunteerHubGUI object that signs volunteers up through a shared registration service.
+     * @param dbManager The database manager instance.
+     * @param registrationService The service that registers volunteers for events.
+     */
+    public VolunteerHubGUI(VolunteerDatabase dbManager, RegistrationService registrationService) {
+        this(dbManager, registrationService, null);
+    }
+
+    /**
+     * Constructs a new VolunteerHubGUI object whose login dialogs use an already loaded check-in service.
+     * @param dbManager The database manager instance.
+     * @param registrationService The service that registers volunteers for events.
+     * @param checkInService The check-in service, or null to load one when the login dialog is first opened.
+     */
+    public VolunteerHubGUI(VolunteerDatabase dbManager, RegistrationService registrationService, CheckInService checkInService) {
         this.dbManager = dbManager;
+        this.registrationService = registrationService;
+        this.checkInService = checkInService;
 
         setTitle("Welcome to Volunteer Hub");
         setSize(600, 400);
@@ -34,7 +60,7 @@ public class VolunteerHubGUI extends JFrame {
 
         // Add action listeners to the buttons
         newUserButton.addActionListener(e -> new NewUserDialog(this, dbManager));
-        loginUserButton.addActionListener(e -> new LoginDialog(this, dbManager));
+        loginUserButton.addActionListener(e -> openLoginDialog());
         helpButton.addActionListener(e -> new HelpDialog(this));
         adminButton.addActionListener(e -> {
             AdminGUI adminGui = new AdminGUI(dbManager);
@@ -55,4 +81,16 @@ public class VolunteerHubGUI extends JFrame {
         // Make the window visible
         setVisible(true);
     }
+
+    private void openLoginDialog() {
+        if (checkInService == null) {
+            try {
+                checkInService = new CheckInService(dbManager, registrationService);
+            } catch (SQLException e) {
+                JOptionPane.showMessageDialog(this, "Error loading events: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+        }
+        new LoginDialog(this, checkInService);
+    }
 }
\ No newline at end of file
@@ -47,6 +47,27 @@ public class VolunteerRecord {
         this.approverID = null;
     }
 
+    /**
+     * Constructs a VolunteerRecord with all of its stored fields, as when loading it from the database.
+     *
+     * @param recordID a unique ID for the record.
+     * @param userID the ID of the volunteer.
+     * @param eventID the ID of the event.
+     * @param hoursSubmitted the number of hours submitted.
+     * @param submissionDate the date the hours were submitted.
+     * @param status the approval status of the record.
+     * @param approverID the ID of the user who approved or rejected the record, or null.
+     */
+    public VolunteerRecord(String recordID, String userID, String eventID, double hoursSubmitted, Date submissionDate, Status status, String approverID) {
+        this.recordID = recordID;
+        this.userID = userID;
+        this.eventID = eventID;
+        this.hoursSubmitted = hoursSubmitted;
+        this.submissionDate = submissionDate;
+        this.status = status;
+        this.approverID = approverID;
+    }
+
     /**
      * Submits the hours to the system.
      */
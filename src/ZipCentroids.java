@@ -0,0 +1,114 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An offline table of ZIP code centroids, used to place addresses on the map without a
+ * geocoding service. The bundled {@code zip_centroids.csv} resource has one
+ * {@code zip,latitude,longitude} row per ZIP code; lines starting with '#' and the header are
+ * skipped. Coordinates are packed into one {@code double[]} so the table costs two doubles
+ * and a map entry per ZIP code.
+ * @author Brandon Roos
+ */
+public class ZipCentroids {
+    /** The name of the bundled dataset on the classpath. */
+    public static final String RESOURCE = "/zip_centroids.csv";
+
+    /** The index of each ZIP code's latitude in coordinates; its longitude follows. */
+    private final Map<String, Integer> offsets = new HashMap<>();
+    private double[] coordinates = new double[256];
+
+    /**
+     * Loads the dataset bundled with the application.
+     * @return The loaded centroids.
+     * @throws IOException if the resource is missing or malformed.
+     */
+    public static ZipCentroids loadBundled() throws IOException {
+        InputStream in = ZipCentroids.class.getResourceAsStream(RESOURCE);
+        if (in == null) {
+            throw new IOException("ZIP centroid resource " + RESOURCE + " is not on the classpath.");
+        }
+        return load(in);
+    }
+
+    /**
+     * Loads a dataset in the {@code zip,latitude,longitude} format.
+     * @param in The stream to read; it is closed when loading finishes.
+     * @return The loaded centroids.
+     * @throws IOException if the stream cannot be read or a row is malformed.
+     */
+    public static ZipCentroids load(InputStream in) throws IOException {
+        ZipCentroids centroids = new ZipCentroids();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#") || line.startsWith("zip,")) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                if (fields.length != 3) {
+                    throw new IOException("Line " + lineNumber + ": expected zip,latitude,longitude but found " + line);
+                }
+                try {
+                    centroids.put(fields[0].trim(), Double.parseDouble(fields[1].trim()), Double.parseDouble(fields[2].trim()));
+                } catch (NumberFormatException e) {
+                    throw new IOException("Line " + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return centroids;
+    }
+
+    /**
+     * Finds the centroid of a ZIP code. ZIP+4 codes and surrounding whitespace are accepted.
+     * @param zipCode The ZIP code.
+     * @return The latitude and longitude in degrees, or null if the ZIP code is unknown.
+     */
+    public double[] locate(String zipCode) {
+        Integer offset = offsets.get(normalize(zipCode));
+        return offset == null ? null : new double[] {coordinates[offset], coordinates[offset + 1]};
+    }
+
+    /**
+     * Gets the number of ZIP codes in the table.
+     * @return The ZIP code count.
+     */
+    public int size() {
+        return offsets.size();
+    }
+
+    /**
+     * Reduces a ZIP or ZIP+4 code to its five-digit form.
+     * @param zipCode The ZIP code as entered.
+     * @return The five-digit ZIP code, or an empty string if there is none.
+     */
+    static String normalize(String zipCode) {
+        if (zipCode == null) {
+            return "";
+        }
+        String trimmed = zipCode.trim();
+        return trimmed.length() > 5 ? trimmed.substring(0, 5) : trimmed;
+    }
+
+    private void put(String zipCode, double latitude, double longitude) {
+        String zip = normalize(zipCode);
+        Integer offset = offsets.get(zip);
+        if (offset == null) {
+            offset = offsets.size() * 2;
+            if (offset + 2 > coordinates.length) {
+                coordinates = Arrays.copyOf(coordinates, coordinates.length * 2);
+            }
+            offsets.put(zip, offset);
+        }
+        coordinates[offset] = latitude;
+        coordinates[offset + 1] = longitude;
+    }
+}